@@ -0,0 +1,365 @@
+package com.pain.white;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.GroupSequence;
+import javax.validation.Path;
+import javax.validation.TraversableResolver;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import javax.validation.groups.Default;
+import javax.validation.metadata.ContainerElementTypeDescriptor;
+import javax.validation.metadata.PropertyDescriptor;
+import java.lang.annotation.ElementType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 对象图的异步校验：validator.validate 在调用线程上串行遍历级联的集合，好友很多时很慢
+ *
+ * 校验用的 Validator 带一个从不级联的 TraversableResolver，每个节点只校验自身；级联的集合元素分块提交到线程池
+ * 分组按 @GroupSequence 的顺序逐个校验整个对象图，某个分组出现违规就不再校验后面的分组，与 Hibernate Validator 的语义一致
+ * 同一次校验中已经访问过的实例（按引用判断）直接跳过，环形的好友关系不会死循环，也不会重复校验
+ */
+class AsyncGraphValidator {
+    private static final int CHUNK_SIZE = 64;
+
+    private final Validator validator;
+    private final Executor executor;
+    // 每个类中需要级联的字段
+    private final ConcurrentMap<Class<?>, Field[]> cascades = new ConcurrentHashMap<>();
+
+    AsyncGraphValidator(ValidatorFactory factory, Executor executor) {
+        this.validator = factory.usingContext()
+                .traversableResolver(new ShallowTraversableResolver())
+                .getValidator();
+        this.executor = executor;
+    }
+
+    /**
+     * @param groups 普通分组一起校验；带 @GroupSequence 的分组展开为按顺序校验的多个步骤。为空时校验 Default
+     */
+    CompletableFuture<GraphViolations> validateAsync(Object root, Class<?>... groups) {
+        List<Class<?>[]> steps = steps(groups.length == 0 ? new Class<?>[]{Default.class} : groups);
+        return validateSteps(root, steps, 0);
+    }
+
+    private CompletableFuture<GraphViolations> validateSteps(Object root, List<Class<?>[]> steps, int index) {
+        if (index == steps.size()) {
+            return CompletableFuture.completedFuture(new GraphViolations(new Class<?>[0], Collections.emptyMap()));
+        }
+
+        Class<?>[] groups = steps.get(index);
+
+        return new Traversal(groups).run(root).thenCompose(violations -> violations.isEmpty()
+                ? validateSteps(root, steps, index + 1)
+                : CompletableFuture.completedFuture(new GraphViolations(groups, violations)));
+    }
+
+    private static List<Class<?>[]> steps(Class<?>... groups) {
+        List<Class<?>[]> steps = new ArrayList<>();
+        List<Class<?>> current = new ArrayList<>();
+
+        for (Class<?> group : groups) {
+            GroupSequence sequence = group.getAnnotation(GroupSequence.class);
+
+            if (sequence == null) {
+                current.add(group);
+                continue;
+            }
+
+            if (!current.isEmpty()) {
+                steps.add(current.toArray(new Class<?>[0]));
+                current.clear();
+            }
+
+            for (Class<?> member : sequence.value()) {
+                steps.add(new Class<?>[]{member});
+            }
+        }
+
+        if (!current.isEmpty()) {
+            steps.add(current.toArray(new Class<?>[0]));
+        }
+
+        return steps;
+    }
+
+    private Field[] cascades(Class<?> type) {
+        return cascades.computeIfAbsent(type, this::findCascades);
+    }
+
+    private Field[] findCascades(Class<?> type) {
+        List<Field> cascaded = new ArrayList<>();
+
+        for (PropertyDescriptor property : validator.getConstraintsForClass(type).getConstrainedProperties()) {
+            if (isCascaded(property)) {
+                cascaded.add(field(type, property.getPropertyName()));
+            }
+        }
+
+        return cascaded.toArray(new Field[0]);
+    }
+
+    private static boolean isCascaded(PropertyDescriptor property) {
+        if (property.isCascaded()) {
+            return true;
+        }
+
+        for (ContainerElementTypeDescriptor element : property.getConstrainedContainerElementTypes()) {
+            if (element.isCascaded()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static Field field(Class<?> type, String name) {
+        for (Class<?> klass = type; klass != null; klass = klass.getSuperclass()) {
+            try {
+                Field field = klass.getDeclaredField(name);
+                field.setAccessible(true);
+                return field;
+            } catch (NoSuchFieldException e) {
+                // 继续在父类中查找
+            }
+        }
+
+        throw new IllegalArgumentException("no field " + name + " in " + type.getName());
+    }
+
+    /**
+     * 所有属性都可以访问，但从不级联，级联由 Traversal 自己完成
+     */
+    private static final class ShallowTraversableResolver implements TraversableResolver {
+
+        @Override
+        public boolean isReachable(Object traversableObject, Path.Node traversableProperty, Class<?> rootBeanType,
+                                   Path pathToTraversableObject, ElementType elementType) {
+            return true;
+        }
+
+        @Override
+        public boolean isCascadable(Object traversableObject, Path.Node traversableProperty, Class<?> rootBeanType,
+                                    Path pathToTraversableObject, ElementType elementType) {
+            return false;
+        }
+    }
+
+    /**
+     * 校验一个分组步骤下的整个对象图：每 CHUNK_SIZE 个节点一个任务，pending 归零时整个图校验完成
+     * 子节点总是提交成新任务而不是就地递归，好友关系连成很长的链也不会栈溢出
+     */
+    private final class Traversal {
+        private final Class<?>[] groups;
+        private final Set<Object> visited = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        private final ConcurrentLinkedQueue<Node> results = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final CompletableFuture<Map<String, Set<ConstraintViolation<Object>>>> done = new CompletableFuture<>();
+
+        Traversal(Class<?>[] groups) {
+            this.groups = groups;
+        }
+
+        CompletableFuture<Map<String, Set<ConstraintViolation<Object>>>> run(Object root) {
+            if (root == null) {
+                throw new NullPointerException();
+            }
+
+            visited.add(root);
+            submit(Collections.singletonList(new Node(root, null, null, null, 0)));
+            return done;
+        }
+
+        private void submit(List<Node> nodes) {
+            pending.incrementAndGet();
+
+            try {
+                executor.execute(() -> validateNodes(nodes));
+            } catch (RuntimeException e) {
+                pending.decrementAndGet();
+                done.completeExceptionally(e);
+            }
+        }
+
+        private void validateNodes(List<Node> nodes) {
+            try {
+                List<Node> children = new ArrayList<>(CHUNK_SIZE);
+
+                for (Node node : nodes) {
+                    if (done.isDone()) {
+                        return;
+                    }
+
+                    validateNode(node, children);
+
+                    if (children.size() >= CHUNK_SIZE) {
+                        submit(children);
+                        children = new ArrayList<>(CHUNK_SIZE);
+                    }
+                }
+
+                if (!children.isEmpty()) {
+                    submit(children);
+                }
+            } catch (Throwable e) {
+                done.completeExceptionally(e);
+            } finally {
+                if (pending.decrementAndGet() == 0) {
+                    complete();
+                }
+            }
+        }
+
+        private void validateNode(Node node, List<Node> children) throws IllegalAccessException {
+            Object bean = node.bean;
+            Set<ConstraintViolation<Object>> violations = validator.validate(bean, groups);
+
+            if (!violations.isEmpty()) {
+                node.violations = violations;
+                results.add(node);
+            }
+
+            int order = 0;
+
+            for (Field field : cascades(bean.getClass())) {
+                String property = field.getName();
+                Object value = field.get(bean);
+
+                if (value instanceof Iterable) {
+                    int index = 0;
+
+                    for (Object element : (Iterable<?>) value) {
+                        addChild(children, element, node, property, index++, order++);
+                    }
+                } else if (value instanceof Map) {
+                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                        addChild(children, entry.getValue(), node, property, entry.getKey(), order++);
+                    }
+                } else if (value != null && value.getClass().isArray()) {
+                    for (int i = 0, n = Array.getLength(value); i < n; i++) {
+                        addChild(children, Array.get(value, i), node, property, i, order++);
+                    }
+                } else {
+                    addChild(children, value, node, property, null, order++);
+                }
+            }
+        }
+
+        private void addChild(List<Node> children, Object bean, Node parent, String property, Object key, int order) {
+            if (bean != null && visited.add(bean)) {
+                children.add(new Node(bean, parent, property, key, order));
+            }
+        }
+
+        private void complete() {
+            try {
+                done.complete(collect());
+            } catch (Throwable e) {
+                done.completeExceptionally(e);
+            }
+        }
+
+        private Map<String, Set<ConstraintViolation<Object>>> collect() {
+            List<Node> sorted = new ArrayList<>(results);
+            sorted.sort(AsyncGraphValidator::compare);
+
+            Map<String, Set<ConstraintViolation<Object>>> violations = new LinkedHashMap<>();
+
+            for (Node node : sorted) {
+                violations.put(node.path(), node.violations);
+            }
+
+            return violations;
+        }
+    }
+
+    // 先序：先对齐到同一深度，再向上找到共同的父节点，比较两个分支在父节点中的顺序；祖先排在子孙之前
+    private static int compare(Node a, Node b) {
+        Node x = a;
+        Node y = b;
+
+        while (x.depth > y.depth) {
+            x = x.parent;
+        }
+
+        while (y.depth > x.depth) {
+            y = y.parent;
+        }
+
+        if (x == y) {
+            return Integer.compare(a.depth, b.depth);
+        }
+
+        while (x.parent != y.parent) {
+            x = x.parent;
+            y = y.parent;
+        }
+
+        return Integer.compare(x.order, y.order);
+    }
+
+    /**
+     * 对象图中的一个节点，只在有违规时才拼接路径
+     */
+    private static final class Node {
+        final Object bean;
+        final Node parent;
+        final String property;
+        // 集合下标或 Map 的键，单个级联对象为 null
+        final Object key;
+        // 在父节点所有级联元素中的顺序
+        final int order;
+        final int depth;
+        Set<ConstraintViolation<Object>> violations;
+
+        Node(Object bean, Node parent, String property, Object key, int order) {
+            this.bean = bean;
+            this.parent = parent;
+            this.property = property;
+            this.key = key;
+            this.order = order;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+        }
+
+        // 链很长时路径也很深，不能递归
+        String path() {
+            List<Node> nodes = new ArrayList<>(depth);
+
+            for (Node node = this; node.parent != null; node = node.parent) {
+                nodes.add(node);
+            }
+
+            StringBuilder builder = new StringBuilder();
+
+            for (int i = nodes.size() - 1; i >= 0; i--) {
+                Node node = nodes.get(i);
+
+                if (builder.length() > 0) {
+                    builder.append('.');
+                }
+
+                builder.append(node.property);
+
+                if (node.key != null) {
+                    builder.append('[').append(node.key).append(']');
+                }
+            }
+
+            return builder.toString();
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.pain.white;
 
+import com.pain.white.io.MappedLineReader;
+
 import java.io.*;
+import java.nio.file.Paths;
 
 public class FunctionalTest {
     public static void main(String[] args) throws IOException {
-        handleFile(content -> {
-            System.out.println("content:");
-            System.out.println(content);
+        System.out.println("content:");
+        handleFile(line -> {
+            System.out.println(line);
         });
 
         handleInt(num -> {
@@ -15,18 +18,11 @@ public class FunctionalTest {
         });
     }
 
+    // 逐行回调，不再把整个文件拼成一个 String 再交给 consumer
     private static void handleFile(StringConsumer consumer) throws IOException {
-        BufferedReader bufferedReader = new BufferedReader(
-                new InputStreamReader(
-                        new FileInputStream("/Users/pain/Documents/java/java-learning/input/bigdata.txt")));
-        StringBuilder sb = new StringBuilder();
-        String line;
-
-        while ((line = bufferedReader.readLine()) != null) {
-            sb.append(line).append("\n");
-        }
-
-        consumer.handle(sb.toString());
+        new MappedLineReader().read(
+                Paths.get("/Users/pain/Documents/java/java-learning/input/bigdata.txt"),
+                consumer::handle);
     }
 
     private static void handleInt(GeneralConsumer generalConsumer) {
@@ -36,7 +32,7 @@ public class FunctionalTest {
 
 @FunctionalInterface
 interface StringConsumer {
-    void handle(String content);
+    void handle(CharSequence content);
 }
 
 @FunctionalInterface
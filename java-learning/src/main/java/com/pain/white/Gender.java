@@ -0,0 +1,6 @@
+package com.pain.white;
+
+enum Gender {
+    MALE,
+    FEMALE
+}
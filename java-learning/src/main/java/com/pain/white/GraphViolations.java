@@ -0,0 +1,59 @@
+package com.pain.white;
+
+import javax.validation.ConstraintViolation;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 对象图的校验结果：按节点路径（例如 friends[0].friends[2]，根节点为空串）分组，路径按先序排列
+ * 每个 ConstraintViolation 的 propertyPath 是相对其所在节点的，rootBean 是该节点
+ */
+class GraphViolations {
+    private final Class<?>[] failedGroups;
+    private final Map<String, Set<ConstraintViolation<Object>>> violations;
+
+    GraphViolations(Class<?>[] failedGroups, Map<String, Set<ConstraintViolation<Object>>> violations) {
+        this.failedGroups = failedGroups;
+        this.violations = Collections.unmodifiableMap(violations);
+    }
+
+    boolean isValid() {
+        return violations.isEmpty();
+    }
+
+    /**
+     * 第一个出现违规的分组；按 @GroupSequence 校验时之后的分组不再执行。全部通过时为空数组
+     */
+    Class<?>[] getFailedGroups() {
+        return failedGroups.clone();
+    }
+
+    Map<String, Set<ConstraintViolation<Object>>> getViolations() {
+        return violations;
+    }
+
+    int size() {
+        int size = 0;
+
+        for (Set<ConstraintViolation<Object>> set : violations.values()) {
+            size += set.size();
+        }
+
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("failed groups: ").append(Arrays.toString(failedGroups));
+
+        violations.forEach((path, set) -> set.forEach(violation -> builder.append('\n')
+                .append(path.isEmpty() ? "" : path + ".")
+                .append(violation.getPropertyPath())
+                .append(": ")
+                .append(violation.getMessage())));
+
+        return builder.toString();
+    }
+}
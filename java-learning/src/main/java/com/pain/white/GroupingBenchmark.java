@@ -0,0 +1,81 @@
+package com.pain.white;
+
+import com.pain.white.stream.Aggregations;
+import com.pain.white.stream.Stats;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class GroupingBenchmark {
+
+    @Param({"10000000"})
+    public int rows;
+
+    private List<Student> students;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        students = StudentGenerator.builder().build().dataset(rows, 42).toList();
+    }
+
+    @Benchmark
+    public Object twoPassGroupingAndPartition() {
+        Map<Gender, DoubleSummaryStatistics> byGender = students.stream()
+                .collect(Collectors.groupingBy(Student::getGender, Collectors.summarizingDouble(Student::getScore)));
+        Map<Boolean, DoubleSummaryStatistics> byGrade = students.stream()
+                .collect(Collectors.partitioningBy(stu -> stu.getScore() > 90, Collectors.summarizingDouble(Student::getScore)));
+        return new Object[]{byGender, byGrade};
+    }
+
+    @Benchmark
+    public Object onePassGroupingAndPartition() {
+        return students.stream()
+                .collect(Collectors.teeing(
+                        Aggregations.statsByEnum(Gender.class, Student::getGender, Student::getScore),
+                        Collectors.partitioningBy(stu -> stu.getScore() > 90, Aggregations.stats(Student::getScore)),
+                        AbstractMap.SimpleImmutableEntry::new));
+    }
+
+    @Benchmark
+    public Map<Gender, DoubleSummaryStatistics> parallelGroupingBy() {
+        return students.parallelStream()
+                .collect(Collectors.groupingBy(Student::getGender, Collectors.summarizingDouble(Student::getScore)));
+    }
+
+    @Benchmark
+    public Map<Gender, DoubleSummaryStatistics> parallelGroupingByConcurrent() {
+        return students.parallelStream()
+                .collect(Collectors.groupingByConcurrent(Student::getGender, Collectors.summarizingDouble(Student::getScore)));
+    }
+
+    @Benchmark
+    public EnumMap<Gender, Stats> parallelStatsByEnum() {
+        return students.parallelStream()
+                .collect(Aggregations.statsByEnum(Gender.class, Student::getGender, Student::getScore));
+    }
+
+    @Benchmark
+    public EnumMap<Gender, Stats> parallelConcurrentStatsByEnum() {
+        return students.parallelStream()
+                .collect(Aggregations.concurrentStatsByEnum(Gender.class, Student::getGender, Student::getScore));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(GroupingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -1,15 +1,24 @@
 package com.pain.white;
 
-import com.google.common.base.Charsets;
 import com.google.common.collect.*;
-import com.google.common.io.CharSink;
-import com.google.common.io.CharSource;
+import com.google.common.io.ByteSink;
+import com.google.common.io.ByteSource;
 import com.google.common.io.Files;
-import com.google.common.primitives.Chars;
+import com.pain.white.collect.IntSet;
+import com.pain.white.collect.LongCursor;
+import com.pain.white.collect.LongCursors;
+import com.pain.white.collect.LongSet;
+import com.pain.white.io.CopyStats;
+import com.pain.white.io.FileCopier;
+import com.pain.white.text.CharFrequency;
+import com.pain.white.thread.batch.ChunkedBatchExecutor;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.*;
+import java.util.stream.Collectors;
 
 public class GuavaTest {
     public static void main(String[] args) throws IOException {
@@ -17,17 +26,25 @@ public class GuavaTest {
     }
 
     private static void immutableTest() {
-        List<Integer> nums = new ArrayList<>();
-        nums.add(1);
-        nums.add(2);
-        nums.add(3);
-
-        ImmutableSet<Integer> immutableSet1 = ImmutableSet.copyOf(nums);
-        ImmutableSet<Integer> immutableSet2 = ImmutableSet.of(1, 2, 3);
-        ImmutableSet<Object> immutableSet3 = ImmutableSet.builder()
+        // 元素个数已知时预先分配好数组，不再经过 ArrayList<Integer> 和临时的 HashSet 装箱
+        IntSet intSet1 = IntSet.builderWithExpectedSize(3)
                 .add(1)
-                .addAll(Sets.newHashSet(2, 3))
+                .add(2)
+                .add(3)
                 .build();
+        IntSet intSet2 = IntSet.of(1, 2, 3);
+        IntSet intSet3 = IntSet.builder()
+                .add(1)
+                .addAll(2, 3)
+                .build();
+
+        System.out.println(intSet1.equals(intSet2) && intSet2.equals(intSet3));
+        System.out.println(intSet1.contains(2));
+        System.out.println(intSet1.subSet(2, 4));
+
+        // 需要 Guava 集合的 API 边界上再转换
+        ImmutableSet<Integer> immutableSet = intSet1.toImmutableSet();
+        System.out.println(IntSet.copyOf(immutableSet).equals(intSet1));
     }
 
     private static void multisetTest() {
@@ -49,18 +66,16 @@ public class GuavaTest {
                 "江水流春去欲尽，江谭落月复西斜。" +
                 "斜月沉沉藏海雾，碣石潇湘无限路。" +
                 "不知乘月几人归? 落月摇情满江树。";
-        Multiset<Character> multiset = HashMultiset.create();
-        char[] chars = text.toCharArray();
-        Chars.asList(chars).stream().forEach(c -> {
-            multiset.add(c);
-        });
-
-        System.out.println(multiset.size());
-        System.out.println(multiset.count('春'));
-        System.out.println(multiset.count('江'));
-        System.out.println(multiset.count('花'));
-        System.out.println(multiset.count('月'));
-        System.out.println(multiset.count('夜'));
+        // HashMultiset<Character> 每个字符都要装箱、查哈希表，这里直接按码点下标计数
+        CharFrequency frequency = new CharFrequency().addAll(text);
+
+        System.out.println(frequency.total());
+        System.out.println(frequency.count('春'));
+        System.out.println(frequency.count('江'));
+        System.out.println(frequency.count('花'));
+        System.out.println(frequency.count('月'));
+        System.out.println(frequency.count('夜'));
+        System.out.println(frequency.topN(5));
     }
 
     private static void setsTest() {
@@ -72,6 +87,15 @@ public class GuavaTest {
         System.out.println(Sets.difference(set1, set2));
         System.out.println(Sets.symmetricDifference(set1, set2));
 
+        // 有序的 ID 集合可以按归并逐个产生结果，不需要先放进 HashSet；输入也可以是 SortedLongFile 映射的大文件
+        LongSet ids1 = LongSet.of(1, 2, 3);
+        LongSet ids2 = LongSet.of(2, 3, 4);
+
+        System.out.println(toList(LongCursors.union(ids1.cursor(), ids2.cursor())));
+        System.out.println(toList(LongCursors.intersection(ids1.cursor(), ids2.cursor())));
+        System.out.println(toList(LongCursors.difference(ids1.cursor(), ids2.cursor())));
+        System.out.println(toList(LongCursors.symmetricDifference(ids1.cursor(), ids2.cursor())));
+
         System.out.println(Sets.powerSet(set1));
         System.out.println(Sets.cartesianProduct(set1, set2));
 
@@ -79,6 +103,10 @@ public class GuavaTest {
         List<List<Integer>> list2 = Lists.partition(list1, 3);
         System.out.println(list2);
 
+        // 按同样的块并行处理，结果保持原顺序
+        ChunkedBatchExecutor executor = ChunkedBatchExecutor.builder().chunkSize(3).build();
+        System.out.println(executor.map(list1, i -> i * i));
+
         List<Integer> list3 = Lists.newLinkedList();
         list3.add(1);
         list3.add(2);
@@ -86,10 +114,18 @@ public class GuavaTest {
         System.out.println(Lists.reverse(list3));
     }
 
+    private static List<Long> toList(LongCursor cursor) {
+        return LongCursors.stream(cursor).boxed().collect(Collectors.toList());
+    }
+
     private static void copyFileTest(String src, String dest) throws IOException {
-        CharSource charSource = Files.asCharSource(new File(src), Charsets.UTF_8);
-        CharSink charSink = Files.asCharSink(new File(dest), Charsets.UTF_8);
+        // 文件拷贝是字节拷贝，不需要 CharSource/CharSink 先解码再编码
+        ByteSource byteSource = Files.asByteSource(new File(src));
+        ByteSink byteSink = Files.asByteSink(new File(dest));
 
-        charSource.copyTo(charSink);
+        try (InputStream in = byteSource.openStream(); OutputStream out = byteSink.openStream()) {
+            CopyStats stats = FileCopier.copy(in, out);
+            System.out.println(stats);
+        }
     }
 }
@@ -1,11 +1,16 @@
 package com.pain.white;
 
+import com.pain.white.io.MappedFileLines;
+import com.pain.white.stream.Aggregations;
+import com.pain.white.stream.Stats;
+import com.pain.white.stream.TopKCollector;
+
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -29,8 +34,9 @@ public class StreamTest {
                 .stream()
                 .peek(stu -> System.out.println(stu))
                 .filter(stu -> stu.gender != Gender.FEMALE)
-                .sorted(Comparator.comparing(Student::getScore).reversed())
-                .limit(2)
+                // 只保留 2 个元素的堆，不必缓存并排序整个流
+                .collect(TopKCollector.greatest(2, Comparator.comparingDouble(Student::getScore)))
+                .stream()
                 .peek(stu -> score.set(score.get() + stu.getScore()))
                 .map(Student::getName)
                 .collect(Collectors.toList());
@@ -57,6 +63,7 @@ public class StreamTest {
 
         buildStream();
         collect();
+        columnar();
     }
 
     private static void buildStream() throws IOException {
@@ -67,63 +74,59 @@ public class StreamTest {
         IntStream intStream = Arrays.stream(numbers);
         intStream.forEach(System.out::println);
 
-        Stream<String> stringStream = Files.lines(Paths.get("/Users/pain/Documents/java/java-learning/input/bigdata.txt"));
-        stringStream.forEach(System.out::println);
+        // Files.lines 的 spliterator 切分很差，parallel() 基本没有收益
+        try (Stream<String> stringStream = MappedFileLines.lines(Paths.get("/Users/pain/Documents/java/java-learning/input/bigdata.txt"))) {
+            stringStream.forEach(System.out::println);
+        }
 
-        Stream<Integer> seqStream = Stream.iterate(100, n -> n * 2);
+        // 原始类型的流，不装箱
+        IntStream seqStream = IntStream.iterate(100, n -> n * 2);
         seqStream.limit(5).forEach(System.out::println);
 
-        Stream<Double> randomStream = Stream.generate(Math::random);
+        // Math.random 共用一个 Random，并行时各线程争用它的种子；SplittableRandom 的流切分时各自 split
+        DoubleStream randomStream = new SplittableRandom(42).doubles();
         randomStream.limit(5).forEach(System.out::println);
+
+        // 可复现的合成数据，按需生成，不论串行并行，同一个 seed 得到相同的记录
+        StudentGenerator.builder().build().dataset(5, 42).stream().forEach(System.out::println);
     }
 
     private static void collect() {
-        Map<Gender, List<Student>> genderToStudents = students.stream()
-                .collect(Collectors.groupingBy(Student::getGender));
+        // 一次遍历同时完成按性别分组和按成绩分区，性别是枚举，用数组下标代替哈希
+        Map.Entry<EnumMap<Gender, List<Student>>, Map<Boolean, List<Student>>> groups = students.stream()
+                .collect(Collectors.teeing(
+                        Aggregations.groupingByEnum(Gender.class, Student::getGender, Collectors.toList()),
+                        Collectors.partitioningBy(stu -> stu.getScore() > 90),
+                        AbstractMap.SimpleImmutableEntry::new));
+
+        Map<Gender, List<Student>> genderToStudents = groups.getKey();
 
         System.out.println(genderToStudents);
 
-        Map<Boolean, List<Student>> gradeToStudents = students.stream()
-                .collect(Collectors.partitioningBy(stu -> stu.getScore() > 90));
+        Map<Boolean, List<Student>> gradeToStudents = groups.getValue();
 
         System.out.println(gradeToStudents);
-    }
-}
 
-enum Gender {
-    MALE,
-    FEMALE
-}
-
-class Student {
-    String name;
-    Gender gender;
-    Double score;
+        EnumMap<Gender, Stats> genderToStats = students.parallelStream()
+                .collect(Aggregations.concurrentStatsByEnum(Gender.class, Student::getGender, Student::getScore));
 
-    public Student(String name, Gender gender, Double score) {
-        this.name = name;
-        this.gender = gender;
-        this.score = score;
+        System.out.println(genderToStats);
     }
 
-    public Double getScore() {
-        return score;
-    }
+    // 与上面的流式查询结果相同，但按列遍历原始类型数组，不装箱
+    private static void columnar() {
+        StudentTable table = StudentTable.of(students);
 
-    public String getName() {
-        return name;
-    }
+        int[] top = table.topK(2, table.genderIsNot(Gender.FEMALE));
+        List<String> names = new ArrayList<>();
 
-    public Gender getGender() {
-        return gender;
-    }
+        for (int row : top) {
+            names.add(table.name(row));
+        }
 
-    @Override
-    public String toString() {
-        return "Student{" +
-                "name='" + name + '\'' +
-                ", gender=" + gender +
-                ", score=" + score +
-                '}';
+        System.out.println(names);
+        System.out.println(table.sum(top));
+        System.out.println(table.count(table.scoreGreaterThan(90)));
+        System.out.println(Arrays.toString(table.avgByGender()));
     }
 }
@@ -0,0 +1,34 @@
+package com.pain.white;
+
+class Student {
+    String name;
+    Gender gender;
+    Double score;
+
+    public Student(String name, Gender gender, Double score) {
+        this.name = name;
+        this.gender = gender;
+        this.score = score;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Gender getGender() {
+        return gender;
+    }
+
+    @Override
+    public String toString() {
+        return "Student{" +
+                "name='" + name + '\'' +
+                ", gender=" + gender +
+                ", score=" + score +
+                '}';
+    }
+}
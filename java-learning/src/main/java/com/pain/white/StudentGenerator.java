@@ -0,0 +1,96 @@
+package com.pain.white;
+
+import com.pain.white.fixture.Dataset;
+import com.pain.white.fixture.Distribution;
+import com.pain.white.fixture.RecordEncoder;
+import com.pain.white.fixture.RecordFactory;
+import com.pain.white.fixture.WeightedChoice;
+
+import java.util.SplittableRandom;
+
+/**
+ * Student 测试数据：姓名从一组名字里抽取（同名对象共享，亿级数据不会因姓名撑爆内存），
+ * 性别按比例抽取，成绩默认为 0 到 100 之间的均匀分布，保留两位小数
+ * 写文件时每行为 name,gender,score
+ */
+class StudentGenerator implements RecordFactory<Student>, RecordEncoder<Student> {
+    private final WeightedChoice<String> names;
+    private final WeightedChoice<Gender> genders;
+    private final Distribution scores;
+
+    private StudentGenerator(Builder builder) {
+        this.names = builder.names;
+        this.genders = builder.genders;
+        this.scores = builder.scores;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    Dataset<Student> dataset(long size, long seed) {
+        return Dataset.of(size, seed, this);
+    }
+
+    @Override
+    public Student create(long index, SplittableRandom random) {
+        return new Student(names.sample(random), genders.sample(random), scores.sample(random));
+    }
+
+    @Override
+    public void encode(Student student, StringBuilder out) {
+        out.append(student.getName()).append(',')
+                .append(student.getGender()).append(',')
+                .append(student.getScore().doubleValue());
+    }
+
+    static class Builder {
+        private WeightedChoice<String> names = WeightedChoice.uniform("jack", "pain", "nancy", "taylor", "punk", "peter");
+        private WeightedChoice<Gender> genders = WeightedChoice.uniform(Gender.MALE, Gender.FEMALE);
+        private Distribution scores = Distribution.uniform(0, 100).round(2);
+
+        private Builder() {
+        }
+
+        Builder names(String... names) {
+            this.names = WeightedChoice.uniform(names);
+            return this;
+        }
+
+        Builder names(WeightedChoice<String> names) {
+            this.names = names;
+            return this;
+        }
+
+        Builder maleRatio(double maleRatio) {
+            if (maleRatio < 0 || maleRatio > 1) {
+                throw new IllegalArgumentException("maleRatio must be in [0, 1]");
+            }
+
+            WeightedChoice.Builder<Gender> builder = WeightedChoice.builder();
+
+            if (maleRatio > 0) {
+                builder.add(Gender.MALE, maleRatio);
+            }
+
+            if (maleRatio < 1) {
+                builder.add(Gender.FEMALE, 1 - maleRatio);
+            }
+
+            this.genders = builder.build();
+            return this;
+        }
+
+        /**
+         * 例如 Distribution.normal(75, 12).clamp(0, 100).round(1)
+         */
+        Builder scores(Distribution scores) {
+            this.scores = scores;
+            return this;
+        }
+
+        StudentGenerator build() {
+            return new StudentGenerator(this);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.pain.white;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 生成测试数据：原来各个基准测试里串行的 Random 循环、共享 Math.random 的并行流、按块分配 SplittableRandom 的 Dataset
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StudentGeneratorBenchmark {
+    private static final String[] NAMES = {"jack", "pain", "nancy", "taylor", "punk", "peter"};
+
+    @Param({"10000000"})
+    public int rows;
+
+    private StudentGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        generator = StudentGenerator.builder().build();
+    }
+
+    @Benchmark
+    public List<Student> serialRandom() {
+        Random random = new Random(42);
+        List<Student> students = new ArrayList<>(rows);
+
+        for (int i = 0; i < rows; i++) {
+            Gender gender = random.nextBoolean() ? Gender.MALE : Gender.FEMALE;
+            students.add(new Student(NAMES[i % NAMES.length], gender, (double) random.nextInt(10000) / 100));
+        }
+
+        return students;
+    }
+
+    /**
+     * 不可复现，所有线程在同一个 Random 的种子上 CAS
+     */
+    @Benchmark
+    public List<Student> parallelMathRandom() {
+        return Stream.generate(() -> new Student(NAMES[(int) (Math.random() * NAMES.length)],
+                        Math.random() < 0.5 ? Gender.MALE : Gender.FEMALE, Math.round(Math.random() * 10000) / 100.0))
+                .parallel()
+                .limit(rows)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Student> datasetToList() {
+        return generator.dataset(rows, 42).toList();
+    }
+
+    /**
+     * 不保存记录，只统计，内存占用与数据量无关
+     */
+    @Benchmark
+    public long datasetParallelCount() {
+        return generator.dataset(rows, 42).parallelStream().filter(stu -> stu.getScore() > 90).count();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(StudentGeneratorBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
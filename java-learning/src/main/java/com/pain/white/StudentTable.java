@@ -0,0 +1,309 @@
+package com.pain.white;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntPredicate;
+
+/**
+ * 列式存储的学生表：成绩存 double[]，性别存 ordinal 的 byte[]，姓名驻留后共享
+ * 所有查询按行下标遍历原始类型数组，不装箱，每行不产生任何对象
+ */
+class StudentTable {
+    private static final Gender[] GENDERS = Gender.values();
+
+    private final int size;
+    private final String[] names;
+    private final byte[] genders;
+    private final double[] scores;
+
+    private StudentTable(int size, String[] names, byte[] genders, double[] scores) {
+        this.size = size;
+        this.names = names;
+        this.genders = genders;
+        this.scores = scores;
+    }
+
+    static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    static StudentTable of(Collection<Student> students) {
+        Builder builder = builder(students.size());
+
+        for (Student student : students) {
+            builder.add(student.getName(), student.getGender(), student.getScore());
+        }
+
+        return builder.build();
+    }
+
+    int size() {
+        return size;
+    }
+
+    String name(int row) {
+        return names[row];
+    }
+
+    Gender gender(int row) {
+        return GENDERS[genders[row]];
+    }
+
+    double score(int row) {
+        return scores[row];
+    }
+
+    IntPredicate genderIs(Gender gender) {
+        byte ordinal = (byte) gender.ordinal();
+        return row -> genders[row] == ordinal;
+    }
+
+    IntPredicate genderIsNot(Gender gender) {
+        byte ordinal = (byte) gender.ordinal();
+        return row -> genders[row] != ordinal;
+    }
+
+    IntPredicate scoreGreaterThan(double threshold) {
+        return row -> scores[row] > threshold;
+    }
+
+    int count(IntPredicate filter) {
+        int count = 0;
+
+        for (int row = 0; row < size; row++) {
+            if (filter.test(row)) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * 与 Collectors.summingDouble/averagingDouble 一样使用 Kahan 补偿求和，最后同样减去补偿项，结果一致
+     */
+    double sum(IntPredicate filter) {
+        double sum = 0.0;
+        double compensation = 0.0;
+        double simpleSum = 0.0;
+
+        for (int row = 0; row < size; row++) {
+            if (filter.test(row)) {
+                double y = scores[row] - compensation;
+                double t = sum + y;
+                compensation = (t - sum) - y;
+                sum = t;
+                simpleSum += scores[row];
+            }
+        }
+
+        return finalSum(sum, compensation, simpleSum);
+    }
+
+    /**
+     * 与 sum(IntPredicate) 相同的补偿求和，rows 按行号升序时两者的结果逐位相同
+     */
+    double sum(int[] rows) {
+        double sum = 0.0;
+        double compensation = 0.0;
+        double simpleSum = 0.0;
+
+        for (int row : rows) {
+            double y = scores[row] - compensation;
+            double t = sum + y;
+            compensation = (t - sum) - y;
+            sum = t;
+            simpleSum += scores[row];
+        }
+
+        return finalSum(sum, compensation, simpleSum);
+    }
+
+    /**
+     * 同 Collectors.computeFinalSum：减去补偿项得到误差更小的和；
+     * 含有无穷大时补偿项会变成 NaN，此时改用不补偿的和，正负无穷相加本身为 NaN 的情况两者一致
+     */
+    private static double finalSum(double sum, double compensation, double simpleSum) {
+        double result = sum - compensation;
+        return Double.isNaN(result) && Double.isInfinite(simpleSum) ? simpleSum : result;
+    }
+
+    /**
+     * 没有匹配的行时返回 NaN
+     */
+    double avg(IntPredicate filter) {
+        int count = count(filter);
+        return count == 0 ? Double.NaN : sum(filter) / count;
+    }
+
+    /**
+     * 返回成绩最高的 k 行的下标，按成绩降序；成绩相同时行号小的在前，与稳定排序后 limit(k) 的结果一致
+     * 用 k 个元素的小顶堆，时间 O(n log k)，只分配一个 int[k]
+     */
+    int[] topK(int k, IntPredicate filter) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+
+        int[] heap = new int[Math.min(k, size)];
+        int heapSize = 0;
+
+        for (int row = 0; row < size && heap.length > 0; row++) {
+            if (!filter.test(row)) {
+                continue;
+            }
+
+            if (heapSize < heap.length) {
+                heap[heapSize] = row;
+                siftUp(heap, heapSize++);
+            } else if (better(row, heap[0])) {
+                heap[0] = row;
+                siftDown(heap, 0, heapSize);
+            }
+        }
+
+        // 堆排序：依次把最差的放到末尾，最终得到从好到差的顺序
+        for (int end = heapSize - 1; end > 0; end--) {
+            int worst = heap[0];
+            heap[0] = heap[end];
+            heap[end] = worst;
+            siftDown(heap, 0, end);
+        }
+
+        return heapSize == heap.length ? heap : Arrays.copyOf(heap, heapSize);
+    }
+
+    private boolean better(int a, int b) {
+        int cmp = Double.compare(scores[a], scores[b]);
+        return cmp > 0 || (cmp == 0 && a < b);
+    }
+
+    private void siftUp(int[] heap, int index) {
+        int row = heap[index];
+
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+
+            if (!better(heap[parent], row)) {
+                break;
+            }
+
+            heap[index] = heap[parent];
+            index = parent;
+        }
+
+        heap[index] = row;
+    }
+
+    private void siftDown(int[] heap, int index, int heapSize) {
+        int row = heap[index];
+        int half = heapSize >>> 1;
+
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+
+            if (right < heapSize && better(heap[child], heap[right])) {
+                child = right;
+            }
+
+            if (!better(row, heap[child])) {
+                break;
+            }
+
+            heap[index] = heap[child];
+            index = child;
+        }
+
+        heap[index] = row;
+    }
+
+    int[] countByGender() {
+        int[] counts = new int[GENDERS.length];
+
+        for (int row = 0; row < size; row++) {
+            counts[genders[row]]++;
+        }
+
+        return counts;
+    }
+
+    double[] sumByGender() {
+        double[] sums = new double[GENDERS.length];
+        double[] compensations = new double[GENDERS.length];
+        double[] simpleSums = new double[GENDERS.length];
+
+        for (int row = 0; row < size; row++) {
+            int gender = genders[row];
+            double y = scores[row] - compensations[gender];
+            double t = sums[gender] + y;
+            compensations[gender] = (t - sums[gender]) - y;
+            sums[gender] = t;
+            simpleSums[gender] += scores[row];
+        }
+
+        for (int i = 0; i < sums.length; i++) {
+            sums[i] = finalSum(sums[i], compensations[i], simpleSums[i]);
+        }
+
+        return sums;
+    }
+
+    /**
+     * 某个性别没有学生时对应位置为 NaN
+     */
+    double[] avgByGender() {
+        int[] counts = countByGender();
+        double[] avgs = sumByGender();
+
+        for (int i = 0; i < avgs.length; i++) {
+            avgs[i] = counts[i] == 0 ? Double.NaN : avgs[i] / counts[i];
+        }
+
+        return avgs;
+    }
+
+    static class Builder {
+        private final Interner<String> interner = Interners.newStrongInterner();
+        private int size;
+        private String[] names;
+        private byte[] genders;
+        private double[] scores;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            names = new String[capacity];
+            genders = new byte[capacity];
+            scores = new double[capacity];
+        }
+
+        Builder add(String name, Gender gender, double score) {
+            if (size == scores.length) {
+                int capacity = size + (size >> 1);
+                names = Arrays.copyOf(names, capacity);
+                genders = Arrays.copyOf(genders, capacity);
+                scores = Arrays.copyOf(scores, capacity);
+            }
+
+            names[size] = interner.intern(name);
+            genders[size] = (byte) gender.ordinal();
+            scores[size] = score;
+            size++;
+            return this;
+        }
+
+        StudentTable build() {
+            if (size == scores.length) {
+                return new StudentTable(size, names, genders, scores);
+            }
+
+            return new StudentTable(size,
+                    Arrays.copyOf(names, size),
+                    Arrays.copyOf(genders, size),
+                    Arrays.copyOf(scores, size));
+        }
+    }
+}
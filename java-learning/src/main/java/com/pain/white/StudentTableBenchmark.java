@@ -0,0 +1,92 @@
+package com.pain.white;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * 1000 万行时 List<Student> 约占 1GB，fork 出的 JVM 堆设为 4g
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StudentTableBenchmark {
+
+    @Param({"10000000"})
+    public int rows;
+
+    private List<Student> students;
+    private StudentTable table;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        students = StudentGenerator.builder().build().dataset(rows, 42).toList();
+
+        table = StudentTable.of(students);
+    }
+
+    @Benchmark
+    public List<String> streamTopTwoMales() {
+        AtomicReference<Double> score = new AtomicReference<>(0.0);
+        List<String> names = students.stream()
+                .filter(stu -> stu.gender != Gender.FEMALE)
+                .sorted(Comparator.comparing(Student::getScore).reversed())
+                .limit(2)
+                .peek(stu -> score.set(score.get() + stu.getScore()))
+                .map(Student::getName)
+                .collect(Collectors.toList());
+        names.add(String.valueOf(score.get()));
+        return names;
+    }
+
+    @Benchmark
+    public List<String> tableTopTwoMales() {
+        int[] top = table.topK(2, table.genderIsNot(Gender.FEMALE));
+        List<String> names = new ArrayList<>();
+
+        for (int row : top) {
+            names.add(table.name(row));
+        }
+
+        names.add(String.valueOf(table.sum(top)));
+        return names;
+    }
+
+    @Benchmark
+    public Map<Gender, Double> streamAvgByGender() {
+        return students.stream()
+                .collect(Collectors.groupingBy(Student::getGender, Collectors.averagingDouble(Student::getScore)));
+    }
+
+    @Benchmark
+    public double[] tableAvgByGender() {
+        return table.avgByGender();
+    }
+
+    @Benchmark
+    public long streamCountAbove90() {
+        return students.stream().filter(stu -> stu.getScore() > 90).count();
+    }
+
+    @Benchmark
+    public int tableCountAbove90() {
+        return table.count(table.scoreGreaterThan(90));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(StudentTableBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
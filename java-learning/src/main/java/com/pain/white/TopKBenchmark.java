@@ -0,0 +1,72 @@
+package com.pain.white;
+
+import com.pain.white.stream.TopKCollector;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 加上 -prof gc 可以看到 sorted().limit() 每次操作的分配量随行数增长，topK 基本不变
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TopKBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int rows;
+
+    @Param({"2", "100"})
+    public int k;
+
+    private List<Student> students;
+
+    private static final Comparator<Student> BY_SCORE = Comparator.comparingDouble(Student::getScore);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        students = StudentGenerator.builder().build().dataset(rows, 42).toList();
+    }
+
+    @Benchmark
+    public List<Student> sortedLimit() {
+        return students.stream()
+                .sorted(BY_SCORE.reversed())
+                .limit(k)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Student> topK() {
+        return students.stream().collect(TopKCollector.greatest(k, BY_SCORE));
+    }
+
+    @Benchmark
+    public List<Student> sortedLimitParallel() {
+        return students.parallelStream()
+                .sorted(BY_SCORE.reversed())
+                .limit(k)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Student> topKParallel() {
+        return students.parallelStream().collect(TopKCollector.greatest(k, BY_SCORE));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TopKBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -1,5 +1,8 @@
 package com.pain.white;
 
+import com.pain.white.io.CopyStats;
+import com.pain.white.io.FileCopier;
+
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -15,12 +18,9 @@ public class TwrTest {
                 FileInputStream inputStream = new FileInputStream(src);
                 FileOutputStream outputStream = new FileOutputStream(dest)
         ) {
-
-            int content = -1;
-
-            while ((content = inputStream.read()) != -1) {
-                outputStream.write(content);
-            }
+            // 两端都是文件流，走 transferTo 零拷贝，不再逐字节 read/write
+            CopyStats stats = FileCopier.copy(inputStream, outputStream);
+            System.out.println(stats);
         } catch (IOException e) {
             e.printStackTrace();
         }
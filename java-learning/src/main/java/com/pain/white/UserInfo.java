@@ -0,0 +1,125 @@
+package com.pain.white;
+
+import com.pain.white.validation.GenerateValidator;
+import com.pain.white.validation.constraints.Phone;
+import org.hibernate.validator.constraints.Length;
+
+import javax.validation.GroupSequence;
+import javax.validation.Valid;
+import javax.validation.constraints.Email;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Past;
+import javax.validation.constraints.Size;
+import javax.validation.groups.Default;
+import java.util.Date;
+import java.util.List;
+
+@GenerateValidator
+class UserInfo {
+
+    interface LoginGroup {}
+
+    interface RegisterGroup {}
+
+    @GroupSequence({
+        LoginGroup.class,
+        RegisterGroup.class,
+        Default.class
+    })
+    interface Group {}
+
+    @NotNull(message = "userId can not be null")
+    private String userId;
+
+    @NotEmpty(message = "userName can not be empty")
+    private String userName;
+
+    @NotBlank(message = "password can not be blank", groups = LoginGroup.class)
+    @Length(min = 8, max = 20, message = "password length must be greater than 8 and less than 20")
+    private String password;
+
+    @NotBlank(message = "email can not be null", groups = RegisterGroup.class)
+    @Email(message = "email format error")
+    private String email;
+
+    @Min(value = 18, message = "age can not less than 18")
+    @Max(value = 45, message = "age can not more than 45")
+    private int age;
+
+    @Phone(message = "phone must begin with 139")
+    private String phone;
+
+    @Past(message = "birthday can not be future")
+    private Date birthday;
+
+    @Size(min = 1, message = "friends can not less than 1")
+    private List<@Valid UserInfo> friends;
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+
+    public Date getBirthday() {
+        return birthday;
+    }
+
+    public void setBirthday(Date birthday) {
+        this.birthday = birthday;
+    }
+
+    public List<UserInfo> getFriends() {
+        return friends;
+    }
+
+    public void setFriends(List<UserInfo> friends) {
+        this.friends = friends;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+}
@@ -0,0 +1,210 @@
+package com.pain.white;
+
+import com.pain.white.fixture.Dataset;
+import com.pain.white.fixture.Distribution;
+import com.pain.white.fixture.RecordEncoder;
+import com.pain.white.fixture.RecordFactory;
+import com.pain.white.fixture.WeightedChoice;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserInfo 测试数据，默认每条都能通过 LoginGroup、RegisterGroup 和 Default 分组的校验：
+ * userId 为下标，userName 为名字加下标，密码 8 到 20 位字母数字，手机号以 139 开头，
+ * 生日由年龄倒推，以固定日期为基准，保证同一个 seed 在任何一天生成的数据都相同
+ *
+ * 好友是只填了必填字段的浅 UserInfo，不是数据集中同一编号的那条记录，好友自己没有好友
+ * invalidRate 大于 0 时按比例破坏每条记录的某一个字段，用于校验失败路径的基准测试
+ * 写文件时每行为 userId,userName,password,email,age,phone,birthday(毫秒),friends(好友个数)
+ */
+class UserInfoGenerator implements RecordFactory<UserInfo>, RecordEncoder<UserInfo> {
+    private static final long BIRTHDAY_BASE = LocalDate.of(2026, 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final char[] PASSWORD_CHARS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
+    private static final int INVALID_FIELDS = 5;
+
+    private final WeightedChoice<String> names;
+    private final WeightedChoice<String> domains;
+    private final WeightedChoice<String> phonePrefixes;
+    private final Distribution ages;
+    private final int maxFriends;
+    private final double invalidRate;
+
+    private UserInfoGenerator(Builder builder) {
+        this.names = builder.names;
+        this.domains = builder.domains;
+        this.phonePrefixes = builder.phonePrefixes;
+        this.ages = builder.ages;
+        this.maxFriends = builder.maxFriends;
+        this.invalidRate = builder.invalidRate;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    Dataset<UserInfo> dataset(long size, long seed) {
+        return Dataset.of(size, seed, this);
+    }
+
+    @Override
+    public UserInfo create(long index, SplittableRandom random) {
+        UserInfo userInfo = newUser(String.valueOf(index), names.sample(random) + index, random);
+        int friends = 1 + random.nextInt(maxFriends);
+        List<UserInfo> list = new ArrayList<>(friends);
+
+        for (int i = 0; i < friends; i++) {
+            list.add(newUser(index + "-" + i, names.sample(random), random));
+        }
+
+        userInfo.setFriends(list);
+
+        if (invalidRate > 0 && random.nextDouble() < invalidRate) {
+            breakField(userInfo, random.nextInt(INVALID_FIELDS));
+        }
+
+        return userInfo;
+    }
+
+    private UserInfo newUser(String userId, String userName, SplittableRandom random) {
+        UserInfo userInfo = new UserInfo();
+        userInfo.setUserId(userId);
+        userInfo.setUserName(userName);
+        userInfo.setPassword(password(random));
+        userInfo.setEmail(userName + '@' + domains.sample(random));
+
+        int age = (int) ages.sample(random);
+        userInfo.setAge(age);
+        userInfo.setPhone(phone(random));
+        // 年龄之外再随机减去一年以内的天数
+        long birthday = BIRTHDAY_BASE - (age * 365L + random.nextInt(365)) * DAY_MILLIS;
+        userInfo.setBirthday(new Date(birthday));
+        return userInfo;
+    }
+
+    private static String password(SplittableRandom random) {
+        char[] chars = new char[8 + random.nextInt(13)];
+
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = PASSWORD_CHARS[random.nextInt(PASSWORD_CHARS.length)];
+        }
+
+        return new String(chars);
+    }
+
+    private String phone(SplittableRandom random) {
+        String prefix = phonePrefixes.sample(random);
+        StringBuilder phone = new StringBuilder(11).append(prefix);
+
+        while (phone.length() < 11) {
+            phone.append((char) ('0' + random.nextInt(10)));
+        }
+
+        return phone.toString();
+    }
+
+    private static void breakField(UserInfo userInfo, int field) {
+        switch (field) {
+            case 0:
+                userInfo.setPassword("short");
+                break;
+            case 1:
+                userInfo.setEmail(userInfo.getUserName());
+                break;
+            case 2:
+                userInfo.setAge(17);
+                break;
+            case 3:
+                userInfo.setPhone("138" + userInfo.getPhone().substring(3));
+                break;
+            default:
+                userInfo.setFriends(new ArrayList<>());
+                break;
+        }
+    }
+
+    @Override
+    public void encode(UserInfo userInfo, StringBuilder out) {
+        out.append(userInfo.getUserId()).append(',')
+                .append(userInfo.getUserName()).append(',')
+                .append(userInfo.getPassword()).append(',')
+                .append(userInfo.getEmail()).append(',')
+                .append(userInfo.getAge()).append(',')
+                .append(userInfo.getPhone()).append(',')
+                .append(userInfo.getBirthday().getTime()).append(',')
+                .append(userInfo.getFriends().size());
+    }
+
+    static class Builder {
+        private WeightedChoice<String> names = WeightedChoice.uniform("jack", "pain", "nancy", "taylor", "punk", "peter");
+        private WeightedChoice<String> domains = WeightedChoice.<String>builder()
+                .add("gmail.com", 5)
+                .add("qq.com", 3)
+                .add("163.com", 2)
+                .build();
+        private WeightedChoice<String> phonePrefixes = WeightedChoice.uniform("139");
+        private Distribution ages = Distribution.uniform(18, 46);
+        private int maxFriends = 1;
+        private double invalidRate;
+
+        private Builder() {
+        }
+
+        Builder names(String... names) {
+            this.names = WeightedChoice.uniform(names);
+            return this;
+        }
+
+        Builder domains(WeightedChoice<String> domains) {
+            this.domains = domains;
+            return this;
+        }
+
+        /**
+         * 前缀不是 139 的手机号通不过 UserInfo 上的 @Phone
+         */
+        Builder phonePrefixes(WeightedChoice<String> phonePrefixes) {
+            this.phonePrefixes = phonePrefixes;
+            return this;
+        }
+
+        /**
+         * 取样结果向下取整，超出 [18, 45] 的年龄通不过校验
+         */
+        Builder ages(Distribution ages) {
+            this.ages = ages;
+            return this;
+        }
+
+        /**
+         * 每个用户的好友个数在 [1, maxFriends] 上均匀分布
+         */
+        Builder maxFriends(int maxFriends) {
+            if (maxFriends <= 0) {
+                throw new IllegalArgumentException("maxFriends must be positive");
+            }
+
+            this.maxFriends = maxFriends;
+            return this;
+        }
+
+        Builder invalidRate(double invalidRate) {
+            if (invalidRate < 0 || invalidRate > 1) {
+                throw new IllegalArgumentException("invalidRate must be in [0, 1]");
+            }
+
+            this.invalidRate = invalidRate;
+            return this;
+        }
+
+        UserInfoGenerator build() {
+            return new UserInfoGenerator(this);
+        }
+    }
+}
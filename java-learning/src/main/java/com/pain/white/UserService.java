@@ -0,0 +1,14 @@
+package com.pain.white;
+
+import javax.validation.Valid;
+
+class UserService {
+    public UserService() {}
+    public UserService(@Valid UserInfo userInfo) {}
+
+    public void setUserInfo(@Valid UserInfo userInfo) {}
+
+    public @Valid UserInfo getUserInfo() {
+        return new UserInfo();
+    }
+}
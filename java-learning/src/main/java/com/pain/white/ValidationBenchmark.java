@@ -0,0 +1,128 @@
+package com.pain.white;
+
+import com.google.common.collect.Lists;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private static final int BATCH_SIZE = 10000;
+
+    private UserInfo userInfo;
+    private List<UserInfo> userInfos;
+    private UserInfo graph;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        userInfo = newUserInfo(1);
+        userInfos = UserInfoGenerator.builder().build().dataset(BATCH_SIZE, 42).toList();
+
+        // 一个用户带 BATCH_SIZE 个好友，每个好友又把这个用户和自己列为好友，构成环
+        // 好友之间不能连成长链：validate 按深度递归，一万层会栈溢出
+        graph = newUserInfo(0);
+        List<UserInfo> friends = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            friends.add(newUserInfo(i));
+        }
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            friends.get(i).setFriends(Lists.newArrayList(graph, friends.get(i)));
+        }
+
+        graph.setFriends(friends);
+
+        ValidationService.getInstance();
+    }
+
+    private static UserInfo newUserInfo(int id) {
+        UserInfo userInfo = new UserInfo();
+        userInfo.setUserId(String.valueOf(id));
+        userInfo.setUserName("jack" + id);
+        userInfo.setPassword("12345678");
+        userInfo.setEmail("jack" + id + "@gmail.com");
+        userInfo.setAge(18 + id % 30);
+        userInfo.setPhone("139" + String.format("%08d", id % 100000000));
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2000, Calendar.NOVEMBER, 1);
+        userInfo.setBirthday(calendar.getTime());
+
+        UserInfo friend = new UserInfo();
+        friend.setUserId("0");
+        friend.setUserName("nancy");
+        friend.setPhone("13900000000");
+        userInfo.setFriends(Lists.newArrayList(friend));
+        return userInfo;
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserInfo>> buildFactoryPerCall() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        return validator.validate(userInfo, UserInfo.LoginGroup.class, UserInfo.RegisterGroup.class);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserInfo>> sharedValidator() {
+        return ValidationService.getInstance().validate(userInfo, UserInfo.LoginGroup.class, UserInfo.RegisterGroup.class);
+    }
+
+    /**
+     * 编译期生成的校验器：直接调用 getter，age 不装箱，分组和 @Valid 级联与 sharedValidator 相同
+     */
+    @Benchmark
+    public Set<ConstraintViolation<UserInfo>> generatedValidator() {
+        return ValidationService.getInstance().validateGenerated(userInfo, UserInfo.LoginGroup.class, UserInfo.RegisterGroup.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Set<ConstraintViolation<UserInfo>>> validateAll() {
+        return ValidationService.getInstance().validateAll(userInfos, UserInfo.LoginGroup.class, UserInfo.RegisterGroup.class);
+    }
+
+    /**
+     * validate 在调用线程上递归遍历全部好友（Hibernate Validator 自己记录已经访问过的实例）
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Set<ConstraintViolation<UserInfo>> graphSerial() {
+        return ValidationService.getInstance().validate(graph);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Set<ConstraintViolation<UserInfo>> graphGenerated() {
+        return ValidationService.getInstance().validateGenerated(graph);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public GraphViolations graphAsync() {
+        return ValidationService.getInstance().validateGraphAsync(graph).join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ValidationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
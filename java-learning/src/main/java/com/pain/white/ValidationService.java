@@ -0,0 +1,120 @@
+package com.pain.white;
+
+import com.pain.white.validation.GeneratedValidator;
+import com.pain.white.validation.GeneratedValidators;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorFactory;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.ValidationException;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import javax.validation.executable.ExecutableValidator;
+import java.lang.reflect.Constructor;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * ValidatorFactory 的构建需要扫描 classpath、解析约束元数据，代价很高，全局只构建一次
+ * Validator 是线程安全的，可以在多个线程中共享
+ */
+class ValidationService {
+    private final Validator validator;
+    private final AsyncGraphValidator graphValidator;
+
+    private ValidationService() {
+        ValidatorFactory factory = Validation.byDefaultProvider()
+                .configure()
+                .constraintValidatorFactory(new AccessibleConstraintValidatorFactory())
+                .buildValidatorFactory();
+        validator = factory.getValidator();
+        graphValidator = new AsyncGraphValidator(factory, ForkJoinPool.commonPool());
+
+        // 提前构建 bean 元数据，避免第一次校验时才去解析
+        warmUp(UserInfo.class, UserService.class);
+    }
+
+    private static class LazyHolder {
+        static final ValidationService INSTANCE = new ValidationService();
+    }
+
+    static ValidationService getInstance() {
+        return LazyHolder.INSTANCE;
+    }
+
+    void warmUp(Class<?>... classes) {
+        for (Class<?> klass : classes) {
+            validator.getConstraintsForClass(klass);
+        }
+    }
+
+    Validator getValidator() {
+        return validator;
+    }
+
+    ExecutableValidator forExecutables() {
+        return validator.forExecutables();
+    }
+
+    <T> Set<ConstraintViolation<T>> validate(T object, Class<?>... groups) {
+        return validator.validate(object, groups);
+    }
+
+    /**
+     * 优先使用编译期生成的校验器（标注了 @GenerateValidator 的类），直接调用 getter，不走反射也不装箱；没有生成的类退回到 Validator
+     * 生成的违规带有与 Validator 相同的消息、路径、非法值和 ConstraintDescriptor，消息只支持字面值，不做插值
+     */
+    @SuppressWarnings("unchecked")
+    <T> Set<ConstraintViolation<T>> validateGenerated(T object, Class<?>... groups) {
+        GeneratedValidator<T> generated = GeneratedValidators.find((Class<T>) object.getClass());
+
+        if (generated == null) {
+            return validator.validate(object, groups);
+        }
+
+        return generated.validate(object, groups);
+    }
+
+    /**
+     * 并行校验，返回结果与 userInfos 的迭代顺序一一对应
+     */
+    List<Set<ConstraintViolation<UserInfo>>> validateAll(Collection<UserInfo> userInfos, Class<?>... groups) {
+        return userInfos.parallelStream()
+                .map(userInfo -> validator.validate(userInfo, groups))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 异步校验整个对象图，级联的集合元素分散到 ForkJoinPool 中校验；传入 UserInfo.Group 时按序列逐组校验，遇到违规即停止
+     */
+    CompletableFuture<GraphViolations> validateGraphAsync(Object root, Class<?>... groups) {
+        return graphValidator.validateAsync(root, groups);
+    }
+
+    /**
+     * 默认工厂通过 getConstructor().newInstance() 创建校验器，包级私有的校验器类会抛出 IllegalAccessException
+     * Hibernate Validator 对每个约束只创建一次校验器实例，这里的反射开销只发生一次
+     */
+    static class AccessibleConstraintValidatorFactory implements ConstraintValidatorFactory {
+
+        @Override
+        public <T extends ConstraintValidator<?, ?>> T getInstance(Class<T> key) {
+            try {
+                Constructor<T> constructor = key.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                return constructor.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new ValidationException("can not instantiate " + key.getName(), e);
+            }
+        }
+
+        @Override
+        public void releaseInstance(ConstraintValidator<?, ?> instance) {
+        }
+    }
+}
@@ -1,22 +1,19 @@
 package com.pain.white;
 
 import com.google.common.collect.Lists;
-import org.hibernate.validator.constraints.Length;
+import com.pain.white.reflect.Invokers;
 
 import javax.validation.*;
-import javax.validation.constraints.*;
 import javax.validation.executable.ExecutableValidator;
 import javax.validation.groups.Default;
-import java.lang.annotation.*;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Calendar;
-import java.util.Date;
-import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.TreeSet;
+import java.util.function.Function;
 
 public class ValidationTest {
     public static void main(String[] args) throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
@@ -24,7 +21,7 @@ public class ValidationTest {
     }
 
     private static void validateObject() {
-        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        Validator validator = ValidationService.getInstance().getValidator();
         UserInfo userInfo = new UserInfo();
         userInfo.setUserId("1");
         userInfo.setUserName("jack");
@@ -42,9 +39,67 @@ public class ValidationTest {
         });
     }
 
+    /**
+     * 好友之间互相引用形成环，每个实例只校验一次
+     * 按 UserInfo.Group 的顺序校验：jack 的密码不满足 LoginGroup，RegisterGroup 和 Default 不再执行
+     */
+    private static void validateGraph() {
+        UserInfo jack = new UserInfo();
+        jack.setUserId("1");
+        jack.setUserName("jack");
+        jack.setPassword("");
+        jack.setPhone("13900000001");
+
+        UserInfo nancy = new UserInfo();
+        nancy.setUserId("2");
+        nancy.setUserName("nancy");
+        nancy.setPassword("12345678");
+        nancy.setPhone("13900000002");
+
+        jack.setFriends(Lists.newArrayList(nancy));
+        nancy.setFriends(Lists.newArrayList(jack, nancy));
+
+        GraphViolations violations = ValidationService.getInstance()
+                .validateGraphAsync(jack, UserInfo.Group.class)
+                .join();
+        System.out.println(violations);
+    }
+
+    /**
+     * 生成的校验器与 Validator 对同一个对象给出相同的违规消息
+     */
+    private static void validateGenerated() {
+        UserInfo userInfo = new UserInfo();
+        userInfo.setUserId("1");
+        userInfo.setUserName("jack");
+        userInfo.setPassword("123456");
+        userInfo.setEmail("jack");
+        userInfo.setAge(16);
+        userInfo.setPhone("13800000000");
+
+        UserInfo friend = new UserInfo();
+        friend.setPhone("13900000000");
+        userInfo.setFriends(Lists.newArrayList(friend));
+
+        ValidationService service = ValidationService.getInstance();
+        Class<?>[] groups = {UserInfo.LoginGroup.class, UserInfo.RegisterGroup.class, Default.class};
+
+        Set<String> expected = new TreeSet<>();
+        service.validate(userInfo, groups).forEach(violation -> {
+            expected.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        });
+
+        Set<String> actual = new TreeSet<>();
+        service.validateGenerated(userInfo, groups).forEach(violation -> {
+            actual.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        });
+
+        actual.forEach(System.out::println);
+        System.out.println("same as validator: " + expected.equals(actual));
+    }
+
     private static void validateMethod() throws NoSuchMethodException {
-        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
-        ExecutableValidator executableValidator = validator.forExecutables();
+        ExecutableValidator executableValidator = ValidationService.getInstance().forExecutables();
 
         UserService userService = new UserService();
         Method method = userService.getClass().getMethod("setUserInfo", UserInfo.class);
@@ -56,13 +111,15 @@ public class ValidationTest {
         });
     }
 
-    private static void validateReturn() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
-        ExecutableValidator executableValidator = validator.forExecutables();
+    @SuppressWarnings("unchecked")
+    private static void validateReturn() throws NoSuchMethodException, IllegalAccessException {
+        ExecutableValidator executableValidator = ValidationService.getInstance().forExecutables();
 
+        // Method 和生成的 Function 都已缓存，重复调用不再查找方法，也不走 Method.invoke
         UserService userService = new UserService();
-        Method method = userService.getClass().getMethod("getUserInfo");
-        Object result = method.invoke(userService);
+        Method method = Invokers.method(UserService.class, "getUserInfo");
+        Function<UserService, UserInfo> getUserInfo = Invokers.lambda(MethodHandles.lookup(), Function.class, method);
+        Object result = getUserInfo.apply(userService);
         Set<ConstraintViolation<UserService>> violations = executableValidator.validateReturnValue(userService, method, result);
         violations.forEach(violation -> {
             System.out.println(violation.getMessage());
@@ -70,8 +127,7 @@ public class ValidationTest {
     }
 
     private static void validateConstruct() throws NoSuchMethodException {
-        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
-        ExecutableValidator executableValidator = validator.forExecutables();
+        ExecutableValidator executableValidator = ValidationService.getInstance().forExecutables();
         Constructor<UserService> constructor = UserService.class.getConstructor(UserInfo.class);
         Object[] objects = new Object[]{new UserInfo()};
         Set<ConstraintViolation<UserService>> violations = executableValidator.validateConstructorParameters(constructor, objects);
@@ -80,146 +136,3 @@ public class ValidationTest {
         });
     }
 }
-
-@Documented
-@Target({ElementType.FIELD})
-@Retention(RetentionPolicy.RUNTIME)
-@Constraint(validatedBy = PhoneValidator.class)
-@interface Phone {
-    String message() default "invalid phone";
-
-    Class<?>[] groups() default {};
-
-    Class<? extends Payload>[] payload() default {};
-}
-
-class PhoneValidator implements ConstraintValidator<Phone, String> {
-    @Override
-    public void initialize(Phone constraintAnnotation) {
-
-    }
-
-    @Override
-    public boolean isValid(String value, ConstraintValidatorContext context) {
-        String validPhone = "139\\d{8}";
-        Pattern pattern = Pattern.compile(validPhone);
-        Matcher matcher = pattern.matcher(value);
-        return matcher.matches();
-    }
-}
-
-class UserService {
-    public UserService() {}
-    public UserService(@Valid UserInfo userInfo) {}
-
-    public void setUserInfo(@Valid UserInfo userInfo) {}
-
-    public @Valid UserInfo getUserInfo() {
-        return new UserInfo();
-    }
-}
-
-class UserInfo {
-
-    interface LoginGroup {}
-
-    interface RegisterGroup {}
-
-    @GroupSequence({
-        LoginGroup.class,
-        RegisterGroup.class,
-        Default.class
-    })
-    interface Group {}
-
-    @NotNull(message = "userId can not be null")
-    private String userId;
-
-    @NotEmpty(message = "userName can not be empty")
-    private String userName;
-
-    @NotBlank(message = "password can not be blank", groups = LoginGroup.class)
-    @Length(min = 8, max = 20, message = "password length must be greater than 8 and less than 20")
-    private String password;
-
-    @NotBlank(message = "email can not be null", groups = RegisterGroup.class)
-    @Email(message = "email format error")
-    private String email;
-
-    @Min(value = 18, message = "age can not less than 18")
-    @Max(value = 45, message = "age can not more than 45")
-    private int age;
-
-    @Phone(message = "phone must begin with 139")
-    private String phone;
-
-    @Past(message = "birthday can not be future")
-    private Date birthday;
-
-    @Size(min = 1, message = "friends can not less than 1")
-    private List<@Valid UserInfo> friends;
-
-    public String getUserId() {
-        return userId;
-    }
-
-    public void setUserId(String userId) {
-        this.userId = userId;
-    }
-
-    public String getUserName() {
-        return userName;
-    }
-
-    public void setUserName(String userName) {
-        this.userName = userName;
-    }
-
-    public String getPassword() {
-        return password;
-    }
-
-    public void setPassword(String password) {
-        this.password = password;
-    }
-
-    public String getEmail() {
-        return email;
-    }
-
-    public void setEmail(String email) {
-        this.email = email;
-    }
-
-    public String getPhone() {
-        return phone;
-    }
-
-    public void setPhone(String phone) {
-        this.phone = phone;
-    }
-
-    public Date getBirthday() {
-        return birthday;
-    }
-
-    public void setBirthday(Date birthday) {
-        this.birthday = birthday;
-    }
-
-    public List<UserInfo> getFriends() {
-        return friends;
-    }
-
-    public void setFriends(List<UserInfo> friends) {
-        this.friends = friends;
-    }
-
-    public int getAge() {
-        return age;
-    }
-
-    public void setAge(int age) {
-        this.age = age;
-    }
-}
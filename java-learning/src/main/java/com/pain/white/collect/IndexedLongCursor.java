@@ -0,0 +1,83 @@
+package com.pain.white.collect;
+
+/**
+ * 能按下标随机访问的有序序列上的游标：seek 先按 1、2、4、8... 的步长倍增找到区间，再在区间内二分
+ * 跳过 k 个元素只需要 O(log k) 次读取，两个集合大小悬殊时交集的代价取决于小的那个
+ */
+abstract class IndexedLongCursor implements LongCursor {
+    private final long end;
+    private long index;
+    private long current;
+
+    IndexedLongCursor(long from, long end) {
+        this.index = from - 1;
+        this.end = end;
+    }
+
+    protected abstract long get(long index);
+
+    @Override
+    public boolean advance() {
+        if (index + 1 >= end) {
+            index = end;
+            return false;
+        }
+
+        current = get(++index);
+        return true;
+    }
+
+    @Override
+    public long current() {
+        return current;
+    }
+
+    @Override
+    public boolean seek(long target) {
+        long lo = index + 1;
+
+        if (lo >= end) {
+            index = end;
+            return false;
+        }
+
+        long value = get(lo);
+
+        if (value >= target) {
+            index = lo;
+            current = value;
+            return true;
+        }
+
+        // 不变式：get(lo) < target，hi 等于 end 或者 get(hi) >= target
+        long step = 1;
+        long hi = lo + step;
+
+        while (hi < end && get(hi) < target) {
+            lo = hi;
+            step <<= 1;
+            hi = lo + step;
+        }
+
+        hi = Math.min(hi, end);
+
+        while (lo + 1 < hi) {
+            long mid = (lo + hi) >>> 1;
+
+            if (get(mid) < target) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+
+        index = hi;
+
+        if (hi >= end) {
+            return false;
+        }
+
+        current = get(hi);
+        return true;
+    }
+}
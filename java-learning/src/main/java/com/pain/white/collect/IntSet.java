@@ -0,0 +1,307 @@
+package com.pain.white.collect;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * 不可变的 int 集合，元素升序存放在 int[] 中，每个元素只占 4 字节；contains 是对数组的二分查找，不装箱
+ *
+ * subSet 返回共享同一个数组的视图，不复制元素；asSet 把集合包装成只读的 Set<Integer>，只在访问元素时装箱
+ * 与 Guava 的 ImmutableSet 通过 copyOf 和 toImmutableSet 相互转换，只在 API 边界上使用
+ */
+public final class IntSet implements Iterable<Integer> {
+    private static final int[] NO_VALUES = new int[0];
+    private static final IntSet EMPTY = new IntSet(NO_VALUES, 0, 0);
+
+    private final int[] values;
+    private final int from;
+    private final int to;
+
+    private IntSet(int[] values, int from, int to) {
+        this.values = values;
+        this.from = from;
+        this.to = to;
+    }
+
+    public static IntSet of() {
+        return EMPTY;
+    }
+
+    public static IntSet of(int... values) {
+        return copyOf(values);
+    }
+
+    public static IntSet copyOf(int[] values) {
+        return builderWithExpectedSize(values.length).addAll(values).build();
+    }
+
+    /**
+     * 从 ImmutableSet<Integer> 或其他集合转换过来，元素不能为 null
+     */
+    public static IntSet copyOf(Collection<Integer> values) {
+        return builderWithExpectedSize(values.size()).addAll(values).build();
+    }
+
+    public static Builder builder() {
+        return new Builder(Builder.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 预先知道元素个数时使用，添加元素的过程中不再扩容
+     */
+    public static Builder builderWithExpectedSize(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize can not be negative: " + expectedSize);
+        }
+
+        return new Builder(expectedSize);
+    }
+
+    public int size() {
+        return to - from;
+    }
+
+    public boolean isEmpty() {
+        return from == to;
+    }
+
+    public boolean contains(int value) {
+        return Arrays.binarySearch(values, from, to, value) >= 0;
+    }
+
+    /**
+     * 第 index 小的元素
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + size());
+        }
+
+        return values[from + index];
+    }
+
+    public int min() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        return values[from];
+    }
+
+    public int max() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        return values[to - 1];
+    }
+
+    /**
+     * [fromInclusive, toExclusive) 之间的元素，与当前集合共享数组
+     */
+    public IntSet subSet(int fromInclusive, int toExclusive) {
+        if (fromInclusive > toExclusive) {
+            throw new IllegalArgumentException("fromInclusive " + fromInclusive + " > toExclusive " + toExclusive);
+        }
+
+        int start = insertionPoint(fromInclusive);
+        int end = insertionPoint(toExclusive);
+        return start == end ? EMPTY : new IntSet(values, start, end);
+    }
+
+    private int insertionPoint(int value) {
+        int index = Arrays.binarySearch(values, from, to, value);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    public void forEachInt(IntConsumer action) {
+        for (int i = from; i < to; i++) {
+            action.accept(values[i]);
+        }
+    }
+
+    public IntStream stream() {
+        return Arrays.stream(values, from, to);
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOfRange(values, from, to);
+    }
+
+    /**
+     * 只读的 Set<Integer> 视图，不复制元素
+     */
+    public Set<Integer> asSet() {
+        return new SetView();
+    }
+
+    public ImmutableSet<Integer> toImmutableSet() {
+        ImmutableSet.Builder<Integer> builder = ImmutableSet.builderWithExpectedSize(size());
+
+        for (int i = from; i < to; i++) {
+            builder.add(values[i]);
+        }
+
+        return builder.build();
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<Integer>() {
+            private int index = from;
+
+            @Override
+            public boolean hasNext() {
+                return index < to;
+            }
+
+            @Override
+            public Integer next() {
+                if (index >= to) {
+                    throw new NoSuchElementException();
+                }
+
+                return values[index++];
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof IntSet)) {
+            return false;
+        }
+
+        IntSet other = (IntSet) o;
+        return Arrays.equals(values, from, to, other.values, other.from, other.to);
+    }
+
+    /**
+     * 与 Set<Integer> 的 hashCode 相同，即所有元素之和
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+
+        for (int i = from; i < to; i++) {
+            hash += values[i];
+        }
+
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+
+        for (int i = from; i < to; i++) {
+            builder.append(i == from ? "" : ", ").append(values[i]);
+        }
+
+        return builder.append(']').toString();
+    }
+
+    private class SetView extends AbstractSet<Integer> {
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Integer && IntSet.this.contains((Integer) o);
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return IntSet.this.iterator();
+        }
+
+        @Override
+        public int size() {
+            return IntSet.this.size();
+        }
+    }
+
+    /**
+     * 先把元素追加到数组末尾，build 时排序去重，最后把数组裁剪到实际大小
+     * build 之后仍然可以继续添加，已经构建的集合不受影响
+     */
+    public static final class Builder {
+        private static final int DEFAULT_CAPACITY = 16;
+
+        private int[] values;
+        private int size;
+
+        private Builder(int capacity) {
+            values = capacity == 0 ? NO_VALUES : new int[capacity];
+        }
+
+        public Builder add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.max(DEFAULT_CAPACITY, values.length + (values.length >> 1)));
+            }
+
+            values[size++] = value;
+            return this;
+        }
+
+        public Builder addAll(int... values) {
+            ensureCapacity(size + values.length);
+            System.arraycopy(values, 0, this.values, size, values.length);
+            size += values.length;
+            return this;
+        }
+
+        public Builder addAll(IntSet set) {
+            ensureCapacity(size + set.size());
+            System.arraycopy(set.values, set.from, values, size, set.size());
+            size += set.size();
+            return this;
+        }
+
+        public Builder addAll(Iterable<Integer> values) {
+            if (values instanceof Collection) {
+                ensureCapacity(size + ((Collection<Integer>) values).size());
+            }
+
+            for (Integer value : values) {
+                add(value);
+            }
+
+            return this;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, Math.max(capacity, values.length + (values.length >> 1)));
+            }
+        }
+
+        public IntSet build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+
+            int[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            int distinct = 1;
+
+            for (int i = 1; i < sorted.length; i++) {
+                if (sorted[i] != sorted[distinct - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+
+            return new IntSet(distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct), 0, distinct);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.pain.white.collect;
+
+import com.google.common.collect.ImmutableSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 构建和 contains：IntSet 与 ImmutableSet<Integer> 对比
+ * 查找的键一半命中、一半不命中，循环使用 4096 个，避免每次都生成随机数
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IntSetBenchmark {
+    private static final int KEYS = 4096;
+
+    // 集合大小
+    @Param({"16", "1024", "1048576"})
+    public int size;
+
+    private int[] values;
+    private int[] keys;
+    private IntSet intSet;
+    private ImmutableSet<Integer> immutableSet;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        values = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextInt();
+        }
+
+        keys = new int[KEYS];
+
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = i % 2 == 0 ? values[random.nextInt(size)] : random.nextInt();
+        }
+
+        intSet = IntSet.copyOf(values);
+        immutableSet = buildImmutableSet();
+    }
+
+    @Benchmark
+    public IntSet buildIntSet() {
+        return IntSet.builderWithExpectedSize(values.length).addAll(values).build();
+    }
+
+    /**
+     * 原来的写法：先装进 ArrayList<Integer>，再 copyOf
+     */
+    @Benchmark
+    public ImmutableSet<Integer> buildImmutableSet() {
+        List<Integer> list = new ArrayList<>(values.length);
+
+        for (int value : values) {
+            list.add(value);
+        }
+
+        return ImmutableSet.copyOf(list);
+    }
+
+    @Benchmark
+    public boolean intSetContains() {
+        return intSet.contains(keys[next++ & (KEYS - 1)]);
+    }
+
+    @Benchmark
+    public boolean immutableSetContains() {
+        return immutableSet.contains(keys[next++ & (KEYS - 1)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(IntSetBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
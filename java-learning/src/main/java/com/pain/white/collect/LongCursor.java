@@ -0,0 +1,32 @@
+package com.pain.white.collect;
+
+/**
+ * 按升序、不重复地逐个访问 long 的游标，创建时位于第一个元素之前
+ * 与 PrimitiveIterator.OfLong 相比多了 seek，交集和差集可以借助它跳过大段元素
+ */
+public interface LongCursor {
+
+    /**
+     * 移动到下一个元素，没有更多元素时返回 false
+     */
+    boolean advance();
+
+    /**
+     * 当前元素，只在 advance 或 seek 返回 true 之后有效
+     */
+    long current();
+
+    /**
+     * 从当前位置向后移动到第一个 >= target 的元素，至少移动一步；没有这样的元素时返回 false
+     * 默认逐个前进，能随机访问的实现用倍增查找覆盖
+     */
+    default boolean seek(long target) {
+        while (advance()) {
+            if (current() >= target) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
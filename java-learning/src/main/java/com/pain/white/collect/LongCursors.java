@@ -0,0 +1,309 @@
+package com.pain.white.collect;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 有序 long 集合上的并、交、差和对称差，对应 Guava Sets 中的同名方法
+ *
+ * 输入和结果都是游标，结果在 advance 时才逐个归并出来，内存占用与集合大小无关；
+ * 输入可以是 LongSet、SortedLongFile 或 LongBitmap，也可以是另一个运算的结果
+ * 每个输入游标只能被一个运算消费一次
+ */
+public final class LongCursors {
+
+    private LongCursors() {}
+
+    public static LongCursor empty() {
+        return of(new long[0]);
+    }
+
+    /**
+     * values 必须升序且不重复，游标直接读取数组，不复制
+     */
+    public static LongCursor of(long[] values) {
+        return of(values, 0, values.length);
+    }
+
+    public static LongCursor of(long[] values, int from, int to) {
+        return new IndexedLongCursor(from, to) {
+            @Override
+            protected long get(long index) {
+                return values[(int) index];
+            }
+        };
+    }
+
+    public static LongCursor union(LongCursor a, LongCursor b) {
+        return new MergeCursor(a, b, true);
+    }
+
+    public static LongCursor symmetricDifference(LongCursor a, LongCursor b) {
+        return new MergeCursor(a, b, false);
+    }
+
+    /**
+     * 在 a 和 b 之间交替 seek，把较小的一方直接跳到另一方的当前元素，小集合放在哪一边都可以
+     */
+    public static LongCursor intersection(LongCursor a, LongCursor b) {
+        return new IntersectionCursor(a, b);
+    }
+
+    /**
+     * a 中不在 b 里的元素，b 只在落后于 a 时才 seek
+     */
+    public static LongCursor difference(LongCursor a, LongCursor b) {
+        return new DifferenceCursor(a, b);
+    }
+
+    public static long count(LongCursor cursor) {
+        long count = 0;
+
+        while (cursor.advance()) {
+            count++;
+        }
+
+        return count;
+    }
+
+    public static PrimitiveIterator.OfLong iterator(LongCursor cursor) {
+        return new PrimitiveIterator.OfLong() {
+            private boolean fetched;
+            private boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (!fetched) {
+                    hasNext = cursor.advance();
+                    fetched = true;
+                }
+
+                return hasNext;
+            }
+
+            @Override
+            public long nextLong() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                fetched = false;
+                return cursor.current();
+            }
+        };
+    }
+
+    public static LongStream stream(LongCursor cursor) {
+        Spliterator.OfLong spliterator = Spliterators.spliteratorUnknownSize(iterator(cursor),
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL);
+        return StreamSupport.longStream(spliterator, false);
+    }
+
+    /**
+     * 并集和对称差：两个游标各停在一个还没输出的元素上，每次输出较小的一个
+     */
+    private static final class MergeCursor implements LongCursor {
+        private final LongCursor a;
+        private final LongCursor b;
+        private final boolean keepCommon;
+
+        private boolean started;
+        private boolean hasA;
+        private boolean hasB;
+        // 当前元素来自哪一边，下一次移动时这一边要先前进
+        private boolean tookA;
+        private boolean tookB;
+        private long current;
+
+        MergeCursor(LongCursor a, LongCursor b, boolean keepCommon) {
+            this.a = a;
+            this.b = b;
+            this.keepCommon = keepCommon;
+        }
+
+        @Override
+        public boolean advance() {
+            if (!started) {
+                started = true;
+                hasA = a.advance();
+                hasB = b.advance();
+            } else {
+                if (tookA) {
+                    hasA = a.advance();
+                }
+
+                if (tookB) {
+                    hasB = b.advance();
+                }
+            }
+
+            return next();
+        }
+
+        @Override
+        public boolean seek(long target) {
+            if (!started) {
+                started = true;
+                hasA = a.seek(target);
+                hasB = b.seek(target);
+            } else {
+                if (hasA && (tookA || a.current() < target)) {
+                    hasA = a.seek(target);
+                }
+
+                if (hasB && (tookB || b.current() < target)) {
+                    hasB = b.seek(target);
+                }
+            }
+
+            return next();
+        }
+
+        private boolean next() {
+            while (hasA && hasB) {
+                long x = a.current();
+                long y = b.current();
+
+                if (x != y) {
+                    tookA = x < y;
+                    tookB = !tookA;
+                    current = Math.min(x, y);
+                    return true;
+                }
+
+                if (keepCommon) {
+                    tookA = true;
+                    tookB = true;
+                    current = x;
+                    return true;
+                }
+
+                hasA = a.advance();
+                hasB = b.advance();
+            }
+
+            tookA = hasA;
+            tookB = hasB;
+
+            if (hasA) {
+                current = a.current();
+            } else if (hasB) {
+                current = b.current();
+            }
+
+            return hasA || hasB;
+        }
+
+        @Override
+        public long current() {
+            return current;
+        }
+    }
+
+    private static final class IntersectionCursor implements LongCursor {
+        private final LongCursor a;
+        private final LongCursor b;
+
+        private boolean started;
+        private boolean done;
+
+        IntersectionCursor(LongCursor a, LongCursor b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        /**
+         * 上一个交集元素上 a 和 b 重合，只移动 a，b 在 next 中追上来
+         */
+        @Override
+        public boolean advance() {
+            return !done && next(a.advance());
+        }
+
+        @Override
+        public boolean seek(long target) {
+            return !done && next(a.seek(target));
+        }
+
+        private boolean next(boolean hasA) {
+            if (hasA && !started) {
+                started = true;
+                hasA = b.seek(a.current());
+            }
+
+            while (hasA) {
+                long x = a.current();
+                long y = b.current();
+
+                if (x == y) {
+                    return true;
+                }
+
+                hasA = x < y ? a.seek(y) : b.seek(x);
+            }
+
+            done = true;
+            return false;
+        }
+
+        @Override
+        public long current() {
+            return a.current();
+        }
+    }
+
+    private static final class DifferenceCursor implements LongCursor {
+        private final LongCursor a;
+        private final LongCursor b;
+
+        private boolean started;
+        private boolean hasB;
+        private boolean done;
+
+        DifferenceCursor(LongCursor a, LongCursor b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        public boolean advance() {
+            return !done && next(a.advance());
+        }
+
+        @Override
+        public boolean seek(long target) {
+            return !done && next(a.seek(target));
+        }
+
+        private boolean next(boolean hasA) {
+            while (hasA) {
+                long x = a.current();
+
+                if (!started) {
+                    started = true;
+                    hasB = b.seek(x);
+                } else if (hasB && b.current() < x) {
+                    hasB = b.seek(x);
+                }
+
+                if (!hasB || b.current() != x) {
+                    return true;
+                }
+
+                hasA = a.advance();
+            }
+
+            done = true;
+            return false;
+        }
+
+        @Override
+        public long current() {
+            return a.current();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.pain.white.collect;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1000 万个元素的大集合与大小不同的小集合求交：倍增 seek 与逐个前进的归并对比
+ * 另外测一个稠密区间上位图游标的交集
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class LongCursorsBenchmark {
+    private static final int LARGE_SIZE = 10_000_000;
+
+    // 小集合的大小
+    @Param({"1000", "100000", "10000000"})
+    public int smallSize;
+
+    private LongSet large;
+    private LongSet small;
+    private LongBitmap largeBitmap;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        LongSet.Builder builder = LongSet.builderWithExpectedSize(LARGE_SIZE);
+
+        // 大集合取 [0, 2 * LARGE_SIZE) 中大约一半的数，稠密到适合用位图表示
+        for (long i = 0; i < 2L * LARGE_SIZE; i++) {
+            if (random.nextBoolean()) {
+                builder.add(i);
+            }
+        }
+
+        large = builder.build();
+        largeBitmap = LongBitmap.copyOf(large.cursor(), 0, 2L * LARGE_SIZE);
+
+        LongSet.Builder smallBuilder = LongSet.builderWithExpectedSize(smallSize);
+
+        for (int i = 0; i < smallSize; i++) {
+            smallBuilder.add(random.nextInt(2 * LARGE_SIZE));
+        }
+
+        small = smallBuilder.build();
+    }
+
+    @Benchmark
+    public long galloping() {
+        return LongCursors.count(LongCursors.intersection(small.cursor(), large.cursor()));
+    }
+
+    @Benchmark
+    public long linear() {
+        return LongCursors.count(LongCursors.intersection(linear(small.cursor()), linear(large.cursor())));
+    }
+
+    @Benchmark
+    public long bitmap() {
+        return LongCursors.count(LongCursors.intersection(small.cursor(), largeBitmap.cursor()));
+    }
+
+    /**
+     * 隐藏原来的 seek，退回到 LongCursor 默认的逐个前进
+     */
+    private static LongCursor linear(LongCursor cursor) {
+        return new LongCursor() {
+            @Override
+            public boolean advance() {
+                return cursor.advance();
+            }
+
+            @Override
+            public long current() {
+                return cursor.current();
+            }
+        };
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LongCursorsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,314 @@
+package com.pain.white.collect;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * 不可变的 long 集合，元素升序存放在 long[] 中，每个元素占 8 字节；contains 是对数组的二分查找，不装箱
+ *
+ * subSet 返回共享同一个数组的视图，不复制元素；asSet 把集合包装成只读的 Set<Long>，只在访问元素时装箱
+ * 与 Guava 的 ImmutableSet 通过 copyOf 和 toImmutableSet 相互转换，只在 API 边界上使用
+ */
+public final class LongSet implements Iterable<Long> {
+    private static final long[] NO_VALUES = new long[0];
+    private static final LongSet EMPTY = new LongSet(NO_VALUES, 0, 0);
+
+    private final long[] values;
+    private final int from;
+    private final int to;
+
+    private LongSet(long[] values, int from, int to) {
+        this.values = values;
+        this.from = from;
+        this.to = to;
+    }
+
+    public static LongSet of() {
+        return EMPTY;
+    }
+
+    public static LongSet of(long... values) {
+        return copyOf(values);
+    }
+
+    public static LongSet copyOf(long[] values) {
+        return builderWithExpectedSize(values.length).addAll(values).build();
+    }
+
+    /**
+     * 从 ImmutableSet<Long> 或其他集合转换过来，元素不能为 null
+     */
+    public static LongSet copyOf(Collection<Long> values) {
+        return builderWithExpectedSize(values.size()).addAll(values).build();
+    }
+
+    public static Builder builder() {
+        return new Builder(Builder.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 预先知道元素个数时使用，添加元素的过程中不再扩容
+     */
+    public static Builder builderWithExpectedSize(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize can not be negative: " + expectedSize);
+        }
+
+        return new Builder(expectedSize);
+    }
+
+    public int size() {
+        return to - from;
+    }
+
+    public boolean isEmpty() {
+        return from == to;
+    }
+
+    public boolean contains(long value) {
+        return Arrays.binarySearch(values, from, to, value) >= 0;
+    }
+
+    /**
+     * 第 index 小的元素
+     */
+    public long get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + size());
+        }
+
+        return values[from + index];
+    }
+
+    public long min() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        return values[from];
+    }
+
+    public long max() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+
+        return values[to - 1];
+    }
+
+    /**
+     * [fromInclusive, toExclusive) 之间的元素，与当前集合共享数组
+     */
+    public LongSet subSet(long fromInclusive, long toExclusive) {
+        if (fromInclusive > toExclusive) {
+            throw new IllegalArgumentException("fromInclusive " + fromInclusive + " > toExclusive " + toExclusive);
+        }
+
+        int start = insertionPoint(fromInclusive);
+        int end = insertionPoint(toExclusive);
+        return start == end ? EMPTY : new LongSet(values, start, end);
+    }
+
+    private int insertionPoint(long value) {
+        int index = Arrays.binarySearch(values, from, to, value);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    public void forEachLong(LongConsumer action) {
+        for (int i = from; i < to; i++) {
+            action.accept(values[i]);
+        }
+    }
+
+    public LongStream stream() {
+        return Arrays.stream(values, from, to);
+    }
+
+    /**
+     * 按升序遍历的游标，可以作为 LongCursors 中集合运算的输入
+     */
+    public LongCursor cursor() {
+        return LongCursors.of(values, from, to);
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOfRange(values, from, to);
+    }
+
+    /**
+     * 只读的 Set<Long> 视图，不复制元素
+     */
+    public Set<Long> asSet() {
+        return new SetView();
+    }
+
+    public ImmutableSet<Long> toImmutableSet() {
+        ImmutableSet.Builder<Long> builder = ImmutableSet.builderWithExpectedSize(size());
+
+        for (int i = from; i < to; i++) {
+            builder.add(values[i]);
+        }
+
+        return builder.build();
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        return new Iterator<Long>() {
+            private int index = from;
+
+            @Override
+            public boolean hasNext() {
+                return index < to;
+            }
+
+            @Override
+            public Long next() {
+                if (index >= to) {
+                    throw new NoSuchElementException();
+                }
+
+                return values[index++];
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof LongSet)) {
+            return false;
+        }
+
+        LongSet other = (LongSet) o;
+        return Arrays.equals(values, from, to, other.values, other.from, other.to);
+    }
+
+    /**
+     * 与 Set<Long> 的 hashCode 相同，即所有元素 Long.hashCode 之和
+     */
+    @Override
+    public int hashCode() {
+        int hash = 0;
+
+        for (int i = from; i < to; i++) {
+            hash += Long.hashCode(values[i]);
+        }
+
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+
+        for (int i = from; i < to; i++) {
+            builder.append(i == from ? "" : ", ").append(values[i]);
+        }
+
+        return builder.append(']').toString();
+    }
+
+    private class SetView extends AbstractSet<Long> {
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Long && LongSet.this.contains((Long) o);
+        }
+
+        @Override
+        public Iterator<Long> iterator() {
+            return LongSet.this.iterator();
+        }
+
+        @Override
+        public int size() {
+            return LongSet.this.size();
+        }
+    }
+
+    /**
+     * 先把元素追加到数组末尾，build 时排序去重，最后把数组裁剪到实际大小
+     * build 之后仍然可以继续添加，已经构建的集合不受影响
+     */
+    public static final class Builder {
+        private static final int DEFAULT_CAPACITY = 16;
+
+        private long[] values;
+        private int size;
+
+        private Builder(int capacity) {
+            values = capacity == 0 ? NO_VALUES : new long[capacity];
+        }
+
+        public Builder add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.max(DEFAULT_CAPACITY, values.length + (values.length >> 1)));
+            }
+
+            values[size++] = value;
+            return this;
+        }
+
+        public Builder addAll(long... values) {
+            ensureCapacity(size + values.length);
+            System.arraycopy(values, 0, this.values, size, values.length);
+            size += values.length;
+            return this;
+        }
+
+        public Builder addAll(LongSet set) {
+            ensureCapacity(size + set.size());
+            System.arraycopy(set.values, set.from, values, size, set.size());
+            size += set.size();
+            return this;
+        }
+
+        public Builder addAll(Iterable<Long> values) {
+            if (values instanceof Collection) {
+                ensureCapacity(size + ((Collection<Long>) values).size());
+            }
+
+            for (Long value : values) {
+                add(value);
+            }
+
+            return this;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, Math.max(capacity, values.length + (values.length >> 1)));
+            }
+        }
+
+        public LongSet build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            int distinct = 1;
+
+            for (int i = 1; i < sorted.length; i++) {
+                if (sorted[i] != sorted[distinct - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+
+            return new LongSet(distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct), 0, distinct);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.pain.white.collect;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 升序、不重复的 long 依次以大端 8 字节写成的文件，按 128MB 分段 mmap 后按下标读取
+ * 映射只占虚拟地址空间，文件可以远大于堆；游标的 seek 只会碰到跳跃路径上的几个页
+ */
+public final class SortedLongFile implements Closeable {
+    private static final int SEGMENT_SHIFT = 27;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long size;
+
+    private SortedLongFile(FileChannel channel, MappedByteBuffer[] segments, long size) {
+        this.channel = channel;
+        this.segments = segments;
+        this.size = size;
+    }
+
+    public static SortedLongFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try {
+            long length = channel.size();
+
+            if (length % Long.BYTES != 0) {
+                throw new IOException("file length " + length + " is not a multiple of 8: " + path);
+            }
+
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((length + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+
+            for (int i = 0; i < segments.length; i++) {
+                long position = (long) i << SEGMENT_SHIFT;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_MASK + 1, length - position));
+            }
+
+            return new SortedLongFile(channel, segments, length / Long.BYTES);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 把游标中的元素写入文件，返回写入的个数；游标本身保证有序，运算的结果可以直接落盘
+     */
+    public static long write(Path path, LongCursor cursor) throws IOException {
+        long count = 0;
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            while (cursor.advance()) {
+                out.writeLong(cursor.current());
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long get(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for size " + size);
+        }
+
+        long position = index * Long.BYTES;
+        return segments[(int) (position >>> SEGMENT_SHIFT)].getLong((int) (position & SEGMENT_MASK));
+    }
+
+    public LongCursor cursor() {
+        return new IndexedLongCursor(0, size) {
+            @Override
+            protected long get(long index) {
+                long position = index * Long.BYTES;
+                return segments[(int) (position >>> SEGMENT_SHIFT)].getLong((int) (position & SEGMENT_MASK));
+            }
+        };
+    }
+
+    /**
+     * 关闭文件后映射仍然有效，直到 MappedByteBuffer 被回收
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,93 @@
+package com.pain.white.fixture;
+
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * 按块切分的 Spliterator：只在块边界切分，块内的记录依次从同一个 SplittableRandom 取随机数
+ */
+final class DatasetSpliterator<T> implements Spliterator<T> {
+    private final Dataset<T> dataset;
+    private long index;
+    private final long end;
+    // 当前块的随机数，index 在块边界上时为 null
+    private SplittableRandom random;
+
+    DatasetSpliterator(Dataset<T> dataset, long index, long end) {
+        this.dataset = dataset;
+        this.index = index;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (index >= end) {
+            return false;
+        }
+
+        if (random == null) {
+            random = dataset.blockRandom(index / Dataset.BLOCK_SIZE);
+        }
+
+        action.accept(dataset.factory().create(index, random));
+
+        if (++index % Dataset.BLOCK_SIZE == 0) {
+            random = null;
+        }
+
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        RecordFactory<T> factory = dataset.factory();
+        long i = index;
+        SplittableRandom r = random;
+        index = end;
+        random = null;
+
+        while (i < end) {
+            if (r == null) {
+                r = dataset.blockRandom(i / Dataset.BLOCK_SIZE);
+            }
+
+            long blockEnd = Math.min(end, (i / Dataset.BLOCK_SIZE + 1) * Dataset.BLOCK_SIZE);
+
+            for (; i < blockEnd; i++) {
+                action.accept(factory.create(i, r));
+            }
+
+            r = null;
+        }
+    }
+
+    /**
+     * 前一半交出去，切分点向上对齐到块边界；当前块已经取过的随机数状态跟着前一半走
+     */
+    @Override
+    public Spliterator<T> trySplit() {
+        long mid = index + (end - index) / 2;
+        mid = (mid + Dataset.BLOCK_SIZE - 1) / Dataset.BLOCK_SIZE * Dataset.BLOCK_SIZE;
+
+        if (mid <= index || mid >= end) {
+            return null;
+        }
+
+        DatasetSpliterator<T> prefix = new DatasetSpliterator<>(dataset, index, mid);
+        prefix.random = random;
+        index = mid;
+        random = null;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+}
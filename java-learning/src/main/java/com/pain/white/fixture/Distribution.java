@@ -0,0 +1,66 @@
+package com.pain.white.fixture;
+
+import java.util.SplittableRandom;
+
+/**
+ * 数值字段的分布
+ */
+@FunctionalInterface
+public interface Distribution {
+
+    double sample(SplittableRandom random);
+
+    static Distribution constant(double value) {
+        return random -> value;
+    }
+
+    /**
+     * [min, max) 上的均匀分布
+     */
+    static Distribution uniform(double min, double max) {
+        if (!(min < max)) {
+            throw new IllegalArgumentException("min must be less than max");
+        }
+
+        return random -> random.nextDouble(min, max);
+    }
+
+    static Distribution normal(double mean, double stddev) {
+        if (!(stddev > 0)) {
+            throw new IllegalArgumentException("stddev must be positive");
+        }
+
+        return random -> random.nextGaussian(mean, stddev);
+    }
+
+    static Distribution exponential(double mean) {
+        if (!(mean > 0)) {
+            throw new IllegalArgumentException("mean must be positive");
+        }
+
+        return random -> random.nextExponential() * mean;
+    }
+
+    /**
+     * 超出 [min, max] 的值截到边界上，正态分布的长尾会堆在两端
+     */
+    default Distribution clamp(double min, double max) {
+        if (min > max) {
+            throw new IllegalArgumentException("min must not be greater than max");
+        }
+
+        return random -> Math.max(min, Math.min(max, sample(random)));
+    }
+
+    /**
+     * 保留 scale 位小数
+     */
+    default Distribution round(int scale) {
+        if (scale < 0) {
+            throw new IllegalArgumentException("scale must not be negative");
+        }
+
+        double factor = Math.pow(10, scale);
+        return random -> Math.round(sample(random) * factor) / factor;
+    }
+}
@@ -0,0 +1,9 @@
+package com.pain.white.fixture;
+
+/**
+ * 把一条记录写成一行文本，不含换行符
+ */
+@FunctionalInterface
+public interface RecordEncoder<T> {
+    void encode(T record, StringBuilder out);
+}
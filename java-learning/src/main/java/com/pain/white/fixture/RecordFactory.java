@@ -0,0 +1,12 @@
+package com.pain.white.fixture;
+
+import java.util.SplittableRandom;
+
+/**
+ * 生成第 index 条记录，只能从 random 取随机数，不能依赖其它共享状态，
+ * 这样同一个 seed 不论串行还是并行、怎么切分，生成的数据都完全一样
+ */
+@FunctionalInterface
+public interface RecordFactory<T> {
+    T create(long index, SplittableRandom random);
+}
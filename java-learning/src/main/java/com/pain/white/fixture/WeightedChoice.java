@@ -0,0 +1,88 @@
+package com.pain.white.fixture;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 按权重从有限个取值中抽取，用于姓名、性别、邮箱域名这类枚举型字段
+ * 累计权重上二分查找，取值个数 n 时每次抽取 O(log n)
+ */
+public final class WeightedChoice<T> {
+    private final Object[] values;
+    private final double[] cumulative;
+    private final double total;
+
+    private WeightedChoice(Object[] values, double[] cumulative) {
+        this.values = values;
+        this.cumulative = cumulative;
+        this.total = cumulative[cumulative.length - 1];
+    }
+
+    @SafeVarargs
+    public static <T> WeightedChoice<T> uniform(T... values) {
+        Builder<T> builder = builder();
+
+        for (T value : values) {
+            builder.add(value, 1);
+        }
+
+        return builder.build();
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    public T sample(SplittableRandom random) {
+        if (values.length == 1) {
+            return (T) values[0];
+        }
+
+        // 找第一个累计权重大于 r 的位置
+        double r = random.nextDouble() * total;
+        int index = Arrays.binarySearch(cumulative, r);
+        index = index < 0 ? -index - 1 : index + 1;
+        return (T) values[Math.min(index, values.length - 1)];
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public static final class Builder<T> {
+        private final List<T> values = new ArrayList<>();
+        private final List<Double> weights = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder<T> add(T value, double weight) {
+            if (!(weight > 0)) {
+                throw new IllegalArgumentException("weight must be positive");
+            }
+
+            values.add(value);
+            weights.add(weight);
+            return this;
+        }
+
+        public WeightedChoice<T> build() {
+            if (values.isEmpty()) {
+                throw new IllegalStateException("no values");
+            }
+
+            double[] cumulative = new double[weights.size()];
+            double sum = 0;
+
+            for (int i = 0; i < cumulative.length; i++) {
+                sum += weights.get(i);
+                cumulative[i] = sum;
+            }
+
+            return new WeightedChoice<>(values.toArray(), cumulative);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.pain.white.io;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 指向映射缓冲区中一行字节的可复用 CharSequence
+ * 纯 ASCII 行直接按字节读取，不做解码；其他行解码到复用的 CharBuffer 中
+ */
+class ByteLineSlice implements CharSequence {
+    private final CharsetDecoder decoder;
+    private final boolean asciiCompatible;
+    private CharBuffer decoded = CharBuffer.allocate(256);
+
+    private ByteBuffer buffer;
+    private int start;
+    private int end;
+    private boolean ascii;
+
+    ByteLineSlice(Charset charset) {
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.asciiCompatible = StandardCharsets.UTF_8.equals(charset)
+                || StandardCharsets.US_ASCII.equals(charset)
+                || StandardCharsets.ISO_8859_1.equals(charset);
+    }
+
+    void reset(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+        this.ascii = asciiCompatible && isAscii(buffer, start, end);
+
+        if (!ascii) {
+            decode();
+        }
+    }
+
+    private static boolean isAscii(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void decode() {
+        ByteBuffer in = buffer.duplicate();
+        in.limit(end).position(start);
+
+        int required = (int) Math.ceil((end - start) * (double) decoder.maxCharsPerByte());
+
+        if (decoded.capacity() < required) {
+            decoded = CharBuffer.allocate(Math.max(required, decoded.capacity() * 2));
+        }
+
+        decoded.clear();
+        decoder.reset();
+        decoder.decode(in, decoded, true);
+        decoder.flush(decoded);
+        decoded.flip();
+    }
+
+    @Override
+    public int length() {
+        return ascii ? end - start : decoded.remaining();
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length()) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length());
+        }
+
+        return ascii ? (char) buffer.get(start + index) : decoded.get(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        return toString().substring(from, to);
+    }
+
+    @Override
+    public String toString() {
+        if (!ascii) {
+            return decoded.toString();
+        }
+
+        char[] chars = new char[end - start];
+
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) buffer.get(start + i);
+        }
+
+        return new String(chars);
+    }
+}
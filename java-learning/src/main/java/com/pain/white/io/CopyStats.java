@@ -0,0 +1,45 @@
+package com.pain.white.io;
+
+import java.util.concurrent.TimeUnit;
+
+public class CopyStats {
+    private final FileCopier.Strategy strategy;
+    private final long bytes;
+    private final long elapsedNanos;
+
+    CopyStats(FileCopier.Strategy strategy, long bytes, long elapsedNanos) {
+        this.strategy = strategy;
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public FileCopier.Strategy getStrategy() {
+        return strategy;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double bytesPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0.0;
+        }
+
+        return bytes * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "CopyStats{" +
+                "strategy=" + strategy +
+                ", bytes=" + bytes +
+                ", elapsedMs=" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) +
+                ", MB/s=" + String.format("%.2f", bytesPerSecond() / (1024 * 1024)) +
+                '}';
+    }
+}
@@ -0,0 +1,120 @@
+package com.pain.white.io;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 两端都是文件时走 FileChannel.transferTo（Linux 上为 sendfile/copy_file_range，数据不经过用户态），
+ * 否则用池化的堆外缓冲分块拷贝
+ */
+public class FileCopier {
+
+    public enum Strategy {
+        TRANSFER,
+        BUFFER
+    }
+
+    private static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    private static final DirectBufferPool POOL =
+            new DirectBufferPool(DEFAULT_BUFFER_SIZE, Runtime.getRuntime().availableProcessors());
+
+    private FileCopier() {}
+
+    public static CopyStats copy(Path src, Path dest) throws IOException {
+        try (
+                FileChannel in = FileChannel.open(src, StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(dest, StandardOpenOption.WRITE,
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)
+        ) {
+            return copy(in, out);
+        }
+    }
+
+    public static CopyStats copy(InputStream in, OutputStream out) throws IOException {
+        if (in instanceof FileInputStream && out instanceof FileOutputStream) {
+            return copy(((FileInputStream) in).getChannel(), ((FileOutputStream) out).getChannel());
+        }
+
+        return copy(Channels.newChannel(in), Channels.newChannel(out));
+    }
+
+    public static CopyStats copy(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        Strategy strategy = (in instanceof FileChannel && out instanceof FileChannel) ? Strategy.TRANSFER : Strategy.BUFFER;
+        return copy(in, out, strategy);
+    }
+
+    public static CopyStats copy(ReadableByteChannel in, WritableByteChannel out, Strategy strategy) throws IOException {
+        long start = System.nanoTime();
+        long bytes;
+
+        switch (strategy) {
+            case TRANSFER:
+                if (!(in instanceof FileChannel)) {
+                    throw new IllegalArgumentException("TRANSFER strategy requires a FileChannel source");
+                }
+                bytes = transfer((FileChannel) in, out);
+                break;
+            case BUFFER:
+                bytes = chunked(in, out);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown strategy: " + strategy);
+        }
+
+        return new CopyStats(strategy, bytes, System.nanoTime() - start);
+    }
+
+    private static long transfer(FileChannel in, WritableByteChannel out) throws IOException {
+        long position = in.position();
+        long size = in.size();
+        long count = 0;
+
+        // transferTo 单次可能只传输一部分（Linux 上限约 2G），需要循环
+        while (position < size) {
+            long n = in.transferTo(position, size - position, out);
+
+            if (n <= 0) {
+                // 源文件被并发截断
+                break;
+            }
+
+            position += n;
+            count += n;
+        }
+
+        in.position(position);
+        return count;
+    }
+
+    private static long chunked(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        ByteBuffer buffer = POOL.acquire();
+        long count = 0;
+
+        try {
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+
+                while (buffer.hasRemaining()) {
+                    count += out.write(buffer);
+                }
+
+                buffer.clear();
+            }
+        } finally {
+            POOL.release(buffer);
+        }
+
+        return count;
+    }
+}
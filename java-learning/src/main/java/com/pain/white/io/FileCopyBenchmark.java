@@ -0,0 +1,116 @@
+package com.pain.white.io;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 逐字节拷贝在大文件上极慢，跑全量参数时可以用 -p fileSize=1048576 只保留小文件
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileCopyBenchmark {
+
+    // 1MB, 64MB, 1GB, 4GB
+    @Param({"1048576", "67108864", "1073741824", "4294967296"})
+    public long fileSize;
+
+    private Path src;
+    private Path dest;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        src = java.nio.file.Files.createTempFile("copy-src", ".txt");
+        dest = java.nio.file.Files.createTempFile("copy-dest", ".txt");
+
+        byte[] line = "春江潮水连海平，海上明月共潮生。spark sql hive kafka flume\n".getBytes(Charsets.UTF_8);
+        ByteBuffer chunk = ByteBuffer.allocate(1024 * 1024);
+
+        while (chunk.remaining() >= line.length) {
+            chunk.put(line);
+        }
+
+        chunk.flip();
+
+        try (FileChannel channel = FileChannel.open(src, StandardOpenOption.WRITE)) {
+            long written = 0;
+
+            while (written < fileSize) {
+                ByteBuffer slice = chunk.duplicate();
+                slice.limit((int) Math.min(slice.limit(), fileSize - written));
+                written += channel.write(slice);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        java.nio.file.Files.deleteIfExists(src);
+        java.nio.file.Files.deleteIfExists(dest);
+    }
+
+    @Benchmark
+    public long byteAtATime() throws IOException {
+        long count = 0;
+
+        try (
+                FileInputStream inputStream = new FileInputStream(src.toFile());
+                FileOutputStream outputStream = new FileOutputStream(dest.toFile())
+        ) {
+            int content;
+
+            while ((content = inputStream.read()) != -1) {
+                outputStream.write(content);
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    @Benchmark
+    public void guavaCharCopy() throws IOException {
+        Files.asCharSource(src.toFile(), Charsets.UTF_8).copyTo(Files.asCharSink(dest.toFile(), Charsets.UTF_8));
+    }
+
+    @Benchmark
+    public long transfer() throws IOException {
+        return copy(FileCopier.Strategy.TRANSFER);
+    }
+
+    @Benchmark
+    public long pooledBuffer() throws IOException {
+        return copy(FileCopier.Strategy.BUFFER);
+    }
+
+    private long copy(FileCopier.Strategy strategy) throws IOException {
+        try (
+                FileChannel in = FileChannel.open(src, StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(dest, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)
+        ) {
+            return FileCopier.copy(in, out, strategy).getBytes();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(FileCopyBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
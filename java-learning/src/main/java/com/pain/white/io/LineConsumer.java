@@ -0,0 +1,9 @@
+package com.pain.white.io;
+
+/**
+ * line 是复用的切片，只在回调内有效，需要保留时调用 toString()
+ */
+@FunctionalInterface
+public interface LineConsumer {
+    void accept(CharSequence line);
+}
@@ -0,0 +1,199 @@
+package com.pain.white.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * 分段 mmap 文件，按原始字节切分行，逐行回调，内存占用与文件大小无关
+ * 支持 \n 和 \r\n 换行
+ */
+public class MappedLineReader {
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private final Charset charset;
+    private final int segmentSize;
+
+    public MappedLineReader() {
+        this(StandardCharsets.UTF_8, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public MappedLineReader(Charset charset, int segmentSize) {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("segmentSize must be positive");
+        }
+
+        this.charset = charset;
+        this.segmentSize = segmentSize;
+    }
+
+    public void read(Path path, LineConsumer consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            readRange(channel, 0, channel.size(), consumer);
+        }
+    }
+
+    /**
+     * 按换行对齐把文件切成 parallelism 段并行处理，行的回调顺序不确定，consumer 必须线程安全
+     */
+    public void readParallel(Path path, int parallelism, LineConsumer consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] bounds = splitAtLines(channel, parallelism);
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long from = bounds[i];
+                long to = bounds[i + 1];
+
+                if (from < to) {
+                    tasks.add(ForkJoinPool.commonPool().submit(() -> {
+                        readRange(channel, from, to, consumer);
+                        return null;
+                    }));
+                }
+            }
+
+            for (ForkJoinTask<?> task : tasks) {
+                try {
+                    task.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    }
+
+                    if (cause instanceof UncheckedIOException) {
+                        throw ((UncheckedIOException) cause).getCause();
+                    }
+
+                    throw new IOException(cause);
+                }
+            }
+        }
+    }
+
+    public void readParallel(Path path, LineConsumer consumer) throws IOException {
+        readParallel(path, Runtime.getRuntime().availableProcessors(), consumer);
+    }
+
+    /**
+     * 返回 parallelism + 1 个边界，除首尾外每个边界都落在某个 \n 之后
+     */
+    static long[] splitAtLines(FileChannel channel, int parallelism) throws IOException {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+
+        long size = channel.size();
+        long[] bounds = new long[parallelism + 1];
+        bounds[parallelism] = size;
+
+        for (int i = 1; i < parallelism; i++) {
+            long raw = Math.max(size / parallelism * i, bounds[i - 1]);
+            bounds[i] = raw >= size ? size : nextLineStart(channel, raw, size);
+        }
+
+        return bounds;
+    }
+
+    static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long pos = position;
+
+        while (pos < size) {
+            buffer.clear();
+            int n = channel.read(buffer, pos);
+
+            if (n <= 0) {
+                break;
+            }
+
+            for (int i = 0; i < n; i++) {
+                if (buffer.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+
+            pos += n;
+        }
+
+        return size;
+    }
+
+    void readRange(FileChannel channel, long from, long to, LineConsumer consumer) throws IOException {
+        ByteLineSlice slice = new ByteLineSlice(charset);
+        long position = from;
+        long segment = segmentSize;
+
+        while (position < to) {
+            int length = (int) Math.min(segment, to - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            boolean tail = position + length == to;
+            int end = tail ? length : lastNewline(buffer, length) + 1;
+
+            if (end == 0) {
+                // 一行超过了当前分段，扩大分段重新映射
+                if (segment >= Integer.MAX_VALUE) {
+                    throw new IOException("line longer than " + Integer.MAX_VALUE + " bytes at offset " + position);
+                }
+
+                segment = Math.min(segment * 2, Integer.MAX_VALUE);
+                continue;
+            }
+
+            emitLines(buffer, end, slice, consumer);
+            position += end;
+            segment = segmentSize;
+        }
+    }
+
+    private static int lastNewline(ByteBuffer buffer, int limit) {
+        for (int i = limit - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static void emitLines(ByteBuffer buffer, int end, ByteLineSlice slice, LineConsumer consumer) {
+        int lineStart = 0;
+
+        for (int i = 0; i < end; i++) {
+            if (buffer.get(i) == '\n') {
+                emit(buffer, lineStart, i, slice, consumer);
+                lineStart = i + 1;
+            }
+        }
+
+        // 文件末尾没有换行的最后一行
+        if (lineStart < end) {
+            emit(buffer, lineStart, end, slice, consumer);
+        }
+    }
+
+    private static void emit(ByteBuffer buffer, int start, int end, ByteLineSlice slice, LineConsumer consumer) {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+
+        slice.reset(buffer, start, end);
+        consumer.accept(slice);
+    }
+}
@@ -0,0 +1,192 @@
+package com.pain.white.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * 基于 mmap 的行 Spliterator，按字节偏移二分后对齐到下一个换行，切分代价为 O(行长)
+ *
+ * 行数只能根据平均行长估算，所以不报告 SIZED/SUBSIZED：
+ * 报告了 SIZED 后 count()、toArray() 会直接使用 estimateSize() 的结果，估算值会导致错误结果
+ */
+public class MappedLineSpliterator implements Spliterator<String> {
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final long MIN_SPLIT_SIZE = 256 * 1024;
+
+    private final FileChannel channel;
+    private final Charset charset;
+    private final int segmentSize;
+    private final double bytesPerLine;
+
+    private long position;
+    private long end;
+
+    private MappedByteBuffer buffer;
+    private long bufferBase;
+    private int bufferLength;
+    private byte[] lineBytes = new byte[256];
+
+    public MappedLineSpliterator(FileChannel channel, Charset charset) throws IOException {
+        this(channel, charset, DEFAULT_SEGMENT_SIZE, 0, channel.size(), sampleBytesPerLine(channel));
+    }
+
+    MappedLineSpliterator(FileChannel channel, Charset charset, int segmentSize,
+                          long position, long end, double bytesPerLine) {
+        this.channel = channel;
+        this.charset = charset;
+        this.segmentSize = segmentSize;
+        this.position = position;
+        this.end = end;
+        this.bytesPerLine = bytesPerLine;
+    }
+
+    private static double sampleBytesPerLine(FileChannel channel) throws IOException {
+        int length = (int) Math.min(channel.size(), 64 * 1024);
+
+        if (length == 0) {
+            return 1.0;
+        }
+
+        MappedByteBuffer sample = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        int lines = 0;
+
+        for (int i = 0; i < length; i++) {
+            if (sample.get(i) == '\n') {
+                lines++;
+            }
+        }
+
+        return lines == 0 ? length : (double) length / lines;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        if (position >= end) {
+            return false;
+        }
+
+        action.accept(nextLine());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        while (position < end) {
+            action.accept(nextLine());
+        }
+    }
+
+    private String nextLine() {
+        try {
+            long segment = segmentSize;
+
+            while (true) {
+                if (buffer == null || position < bufferBase || position >= bufferBase + bufferLength) {
+                    map(position, segment);
+                }
+
+                int from = (int) (position - bufferBase);
+                int newline = indexOf(buffer, from, bufferLength);
+
+                if (newline >= 0) {
+                    position = bufferBase + newline + 1;
+                    return decode(from, newline);
+                }
+
+                if (bufferBase + bufferLength == end) {
+                    position = end;
+                    return decode(from, bufferLength);
+                }
+
+                // 当前行跨越分段，从行首重新映射并扩大分段
+                if (from == 0) {
+                    if (segment >= Integer.MAX_VALUE) {
+                        throw new IOException("line longer than " + Integer.MAX_VALUE + " bytes at offset " + position);
+                    }
+
+                    segment = Math.min(segment * 2, Integer.MAX_VALUE);
+                }
+
+                map(position, segment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void map(long from, long segment) throws IOException {
+        bufferLength = (int) Math.min(segment, end - from);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, bufferLength);
+        bufferBase = from;
+    }
+
+    private static int indexOf(MappedByteBuffer buffer, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private String decode(int from, int to) {
+        if (to > from && buffer.get(to - 1) == '\r') {
+            to--;
+        }
+
+        int length = to - from;
+
+        if (lineBytes.length < length) {
+            lineBytes = new byte[Math.max(length, lineBytes.length * 2)];
+        }
+
+        for (int i = 0; i < length; i++) {
+            lineBytes[i] = buffer.get(from + i);
+        }
+
+        return new String(lineBytes, 0, length, charset);
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        long remaining = end - position;
+
+        if (remaining < MIN_SPLIT_SIZE) {
+            return null;
+        }
+
+        long mid;
+
+        try {
+            mid = MappedLineReader.nextLineStart(channel, position + remaining / 2, end);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (mid >= end) {
+            return null;
+        }
+
+        MappedLineSpliterator prefix =
+                new MappedLineSpliterator(channel, charset, segmentSize, position, mid, bytesPerLine);
+        position = mid;
+        buffer = null;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return (long) Math.ceil((end - position) / bytesPerLine);
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+}
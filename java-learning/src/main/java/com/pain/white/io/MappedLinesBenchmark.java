@@ -0,0 +1,99 @@
+package com.pain.white.io;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 用 -p fileSize=... 选择文件大小，通过 ForkJoinPool.common.parallelism 调整并行度观察扩展性
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappedLinesBenchmark {
+
+    // 1GB, 4GB, 10GB
+    @Param({"1073741824", "4294967296", "10737418240"})
+    public long fileSize;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Files.createTempFile("lines", ".txt");
+
+        String[] words = {"spark sql", "hive", "kafka", "flume", "spark streaming", "春江潮水连海平"};
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; sb.length() < 1024 * 1024; i++) {
+            sb.append(words[i % words.length]).append(' ').append(i).append('\n');
+        }
+
+        byte[] chunk = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            long written = 0;
+
+            while (written < fileSize) {
+                written += channel.write(ByteBuffer.wrap(chunk));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Map<Integer, Long> filesLinesParallel() throws IOException {
+        try (Stream<String> lines = Files.lines(file)) {
+            return pipeline(lines.parallel());
+        }
+    }
+
+    @Benchmark
+    public Map<Integer, Long> mappedLinesParallel() throws IOException {
+        try (Stream<String> lines = MappedFileLines.lines(file)) {
+            return pipeline(lines.parallel());
+        }
+    }
+
+    @Benchmark
+    public Map<Integer, Long> mappedLinesSequential() throws IOException {
+        try (Stream<String> lines = MappedFileLines.lines(file)) {
+            return pipeline(lines);
+        }
+    }
+
+    private static Map<Integer, Long> pipeline(Stream<String> lines) {
+        return lines
+                .filter(line -> line.startsWith("spark"))
+                .map(String::length)
+                .collect(Collectors.groupingBy(length -> length, Collectors.counting()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MappedLinesBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
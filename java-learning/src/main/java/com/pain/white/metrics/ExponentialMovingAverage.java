@@ -0,0 +1,101 @@
+package com.pain.white.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 指数加权移动平均（EWMA），越新的样本权重越大
+ *
+ * submit 只写分段累加器；每过一个 interval，由第一个抢到 CAS 的线程把这段时间的均值并入：
+ * avg = avg + alpha * (intervalAvg - avg)，alpha = 1 - exp(-interval / tau)
+ * 累加器只增不清零，每次取与上次快照的差值，不会像 sumThenReset 那样丢掉并发写入的样本
+ *
+ * 没有样本的 interval 不参与计算，平均值保持不变
+ */
+public class ExponentialMovingAverage implements MovingAverage {
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+
+    private final long intervalNanos;
+    private final double alpha;
+    private final LongSupplier clock;
+
+    private final AtomicLong lastTick;
+
+    // 以下字段只由抢到 tick 的线程修改
+    private long lastCount;
+    private double lastSum;
+    private volatile boolean initialized;
+    private volatile double avg;
+
+    /**
+     * @param interval 多久把新样本并入一次
+     * @param tau      时间常数，样本的权重每过 tau 衰减为原来的 1/e
+     */
+    public ExponentialMovingAverage(long interval, long tau, TimeUnit unit) {
+        this(interval, tau, unit, System::nanoTime);
+    }
+
+    ExponentialMovingAverage(long interval, long tau, TimeUnit unit, LongSupplier clock) {
+        if (interval <= 0 || tau <= 0) {
+            throw new IllegalArgumentException("interval and tau must be positive");
+        }
+
+        this.intervalNanos = unit.toNanos(interval);
+        this.alpha = 1 - Math.exp(-(double) interval / tau);
+        this.clock = clock;
+        this.lastTick = new AtomicLong(clock.getAsLong());
+    }
+
+    @Override
+    public void submit(double value) {
+        sum.add(value);
+        count.increment();
+        tickIfNecessary();
+    }
+
+    @Override
+    public double getAvg() {
+        tickIfNecessary();
+        return avg;
+    }
+
+    private void tickIfNecessary() {
+        long last = lastTick.get();
+        long now = clock.getAsLong();
+
+        if (now - last < intervalNanos) {
+            return;
+        }
+
+        // 对齐到 interval 的整数倍，只让一个线程执行合并
+        long next = now - (now - last) % intervalNanos;
+
+        if (lastTick.compareAndSet(last, next)) {
+            tick();
+        }
+    }
+
+    private synchronized void tick() {
+        long currentCount = count.sum();
+        double currentSum = sum.sum();
+        long n = currentCount - lastCount;
+
+        if (n > 0) {
+            double intervalAvg = (currentSum - lastSum) / n;
+
+            if (initialized) {
+                avg += alpha * (intervalAvg - avg);
+            } else {
+                avg = intervalAvg;
+                initialized = true;
+            }
+        }
+
+        lastCount = currentCount;
+        lastSum = currentSum;
+    }
+}
@@ -0,0 +1,12 @@
+package com.pain.white.metrics;
+
+/**
+ * 可以被多个线程同时调用的平均值统计
+ * submit 不分配对象，没有样本时 getAvg 返回 0
+ */
+public interface MovingAverage {
+
+    void submit(double value);
+
+    double getAvg();
+}
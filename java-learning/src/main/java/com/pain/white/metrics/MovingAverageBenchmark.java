@@ -0,0 +1,86 @@
+package com.pain.white.metrics;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 所有线程共享同一个实例，测量 submit 在 1 到 64 个线程竞争下的吞吐
+ * 线程数不能用 @Param 指定，由 main 逐个运行
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MovingAverageBenchmark {
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+    private SynchronizedMovingAverage synchronizedAverage;
+    private StripedMovingAverage stripedAverage;
+    private WindowedMovingAverage windowedAverage;
+    private ExponentialMovingAverage exponentialAverage;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        synchronizedAverage = new SynchronizedMovingAverage();
+        stripedAverage = new StripedMovingAverage();
+        windowedAverage = new WindowedMovingAverage(10, TimeUnit.SECONDS, 10);
+        exponentialAverage = new ExponentialMovingAverage(1, 60, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public void synchronizedSubmit() {
+        synchronizedAverage.submit(ThreadLocalRandom.current().nextDouble());
+    }
+
+    @Benchmark
+    public void stripedSubmit() {
+        stripedAverage.submit(ThreadLocalRandom.current().nextDouble());
+    }
+
+    @Benchmark
+    public void windowedSubmit() {
+        windowedAverage.submit(ThreadLocalRandom.current().nextDouble());
+    }
+
+    @Benchmark
+    public void exponentialSubmit() {
+        exponentialAverage.submit(ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * 对照组：与 lab/MovingAverage 相同的写法，加上 synchronized 保证线程安全
+     */
+    static class SynchronizedMovingAverage implements MovingAverage {
+        private long count;
+        private double sum;
+
+        @Override
+        public synchronized void submit(double value) {
+            count++;
+            sum += value;
+        }
+
+        @Override
+        public synchronized double getAvg() {
+            return count == 0 ? 0.0 : sum / count;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREADS) {
+            Options options = new OptionsBuilder()
+                    .include(MovingAverageBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.pain.white.metrics;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 累计平均值：次数和总和都用分段累加器，竞争时各线程写不同的 cell，互不干扰
+ * count 是 long，不会像 int 计数那样在 2^31 次后溢出
+ *
+ * 读取时 count 和 sum 分别求和，并发写入时两者可能相差几个样本，对监控指标来说可以接受
+ */
+public class StripedMovingAverage implements MovingAverage {
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+
+    @Override
+    public void submit(double value) {
+        sum.add(value);
+        count.increment();
+    }
+
+    @Override
+    public double getAvg() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : sum.sum() / n;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public void reset() {
+        count.reset();
+        sum.reset();
+    }
+}
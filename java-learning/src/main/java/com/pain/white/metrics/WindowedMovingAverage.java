@@ -0,0 +1,112 @@
+package com.pain.white.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 滑动时间窗口内的平均值：窗口切成若干个桶，组成环形数组，每个桶记录自己所属的时间片
+ *
+ * 桶里的样本数和总和是分段累加器，同一时间片的写入者各写各的 cell，互不等待；
+ * 桶过期时用一次 CAS 把环上的引用换成新时间片的空桶，不在原地清零。
+ * 取时间之后被挂起太久的写入者最多把样本加进已经被换下的旧桶，这个样本随旧桶丢弃，不会混进新的时间片；
+ * 读取者只累加时间片落在窗口内的桶，过期的桶直接跳过，不需要等待任何写入者。
+ * 每个桶每个时间片只在第一次写入时分配一次，其余的 submit 不分配对象
+ *
+ * 结果是近似值：窗口边界按桶的粒度滑动；与 StripedMovingAverage 一样，并发写入时样本数和总和可能相差几个样本
+ */
+public class WindowedMovingAverage implements MovingAverage {
+    // 空桶的时间片不会落在任何窗口内，避免第 0 个时间片被误认为已有数据
+    private static final Bucket EMPTY = new Bucket(Long.MIN_VALUE);
+
+    private final int buckets;
+    private final long bucketNanos;
+    private final LongSupplier clock;
+    private final long origin;
+    private final AtomicReferenceArray<Bucket> ring;
+
+    public WindowedMovingAverage(long window, TimeUnit unit, int buckets) {
+        this(window, unit, buckets, System::nanoTime);
+    }
+
+    WindowedMovingAverage(long window, TimeUnit unit, int buckets, LongSupplier clock) {
+        if (buckets <= 0) {
+            throw new IllegalArgumentException("buckets must be positive");
+        }
+
+        long windowNanos = unit.toNanos(window);
+
+        if (windowNanos < buckets) {
+            throw new IllegalArgumentException("window is too small for " + buckets + " buckets");
+        }
+
+        this.buckets = buckets;
+        this.bucketNanos = windowNanos / buckets;
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        this.ring = new AtomicReferenceArray<>(buckets);
+
+        for (int i = 0; i < buckets; i++) {
+            ring.set(i, EMPTY);
+        }
+    }
+
+    @Override
+    public void submit(double value) {
+        long epoch = currentEpoch();
+        int index = (int) (epoch % buckets);
+        Bucket bucket = ring.get(index);
+
+        while (bucket.epoch != epoch) {
+            if (bucket.epoch > epoch) {
+                // 本线程在取时间之后被挂起太久，桶已经属于更新的时间片，丢弃这个样本
+                return;
+            }
+
+            // CAS 失败说明别的线程已经换上了新桶，重新读取后按它的时间片判断
+            Bucket fresh = new Bucket(epoch);
+            bucket = ring.compareAndSet(index, bucket, fresh) ? fresh : ring.get(index);
+        }
+
+        bucket.sum.add(value);
+        bucket.count.increment();
+    }
+
+    @Override
+    public double getAvg() {
+        long epoch = currentEpoch();
+        long count = 0;
+        double sum = 0.0;
+
+        for (int i = 0; i < buckets; i++) {
+            Bucket bucket = ring.get(i);
+
+            if (bucket.epoch > epoch - buckets && bucket.epoch <= epoch) {
+                count += bucket.count.sum();
+                sum += bucket.sum.sum();
+            }
+        }
+
+        return count == 0 ? 0.0 : sum / count;
+    }
+
+    private long currentEpoch() {
+        // nanoTime 可能为负，以创建时刻为起点计算，时间片编号从 0 开始
+        return (clock.getAsLong() - origin) / bucketNanos;
+    }
+
+    /**
+     * 时间片编号不变；被换下之后挂起过的写入者仍可能加进样本，但读取者已经看不到这个桶
+     */
+    private static final class Bucket {
+        final long epoch;
+        final LongAdder count = new LongAdder();
+        final DoubleAdder sum = new DoubleAdder();
+
+        Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
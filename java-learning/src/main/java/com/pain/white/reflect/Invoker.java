@@ -0,0 +1,10 @@
+package com.pain.white.reflect;
+
+/**
+ * 通用的反射调用入口，静态方法的 target 传 null
+ */
+@FunctionalInterface
+public interface Invoker {
+
+    Object invoke(Object target, Object... args) throws Throwable;
+}
@@ -0,0 +1,117 @@
+package com.pain.white.reflect;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 直接调用、Method.invoke、MethodHandle.invokeExact、Invoker 和生成的 lambda 的对比
+ *
+ * JDK 18 起（JEP 416）Method.invoke 本身基于 MethodHandle 实现，不再有 native accessor 和膨胀阈值，
+ * 与缓存的 MethodHandle 相比，差距在于每次调用的参数装箱、可变参数数组和访问检查
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InvokerBenchmark {
+    private static final MethodHandle CONSTANT_HANDLE;
+
+    static {
+        try {
+            CONSTANT_HANDLE = MethodHandles.lookup().findVirtual(Target.class, "add",
+                    MethodType.methodType(int.class, int.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Target target;
+    private int value;
+
+    private Method method;
+    private Method accessibleMethod;
+    private MethodHandle handle;
+    private Invoker invoker;
+    private Adder adder;
+
+    @Setup(Level.Trial)
+    public void setup() throws ReflectiveOperationException {
+        target = new Target();
+        value = 42;
+
+        method = Target.class.getMethod("add", int.class);
+        accessibleMethod = Target.class.getMethod("add", int.class);
+        accessibleMethod.setAccessible(true);
+
+        Method cached = Invokers.method(Target.class, "add", int.class);
+        handle = Invokers.handle(MethodHandles.lookup(), cached);
+        invoker = Invokers.invoker(MethodHandles.lookup(), cached);
+        adder = Invokers.lambda(MethodHandles.lookup(), Adder.class, cached);
+    }
+
+    @Benchmark
+    public int direct() {
+        return target.add(value);
+    }
+
+    @Benchmark
+    public Object methodInvoke() throws ReflectiveOperationException {
+        return method.invoke(target, value);
+    }
+
+    @Benchmark
+    public Object methodInvokeAccessible() throws ReflectiveOperationException {
+        return accessibleMethod.invoke(target, value);
+    }
+
+    @Benchmark
+    public int constantHandle() throws Throwable {
+        return (int) CONSTANT_HANDLE.invokeExact(target, value);
+    }
+
+    @Benchmark
+    public int cachedHandle() throws Throwable {
+        return (int) handle.invokeExact(target, value);
+    }
+
+    @Benchmark
+    public Object cachedInvoker() throws Throwable {
+        return invoker.invoke(target, value);
+    }
+
+    @Benchmark
+    public int generatedLambda() {
+        return adder.add(target, value);
+    }
+
+    public interface Adder {
+        int add(Target target, int value);
+    }
+
+    public static class Target {
+        private int base = 1;
+
+        public int add(int value) {
+            return base + value;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(InvokerBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,271 @@
+package com.pain.white.reflect;
+
+import com.google.common.primitives.Primitives;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 代替 Method.invoke：方法只解析一次，按类和签名缓存
+ *
+ * Method.invoke 每次调用都要装箱参数、分配可变参数数组、做访问检查
+ * 这里提供两种替代：
+ * 1. handle / invoker：缓存 MethodHandle，访问检查只在 unreflect 时做一次
+ * 2. lambda：用 LambdaMetafactory 生成函数式接口的实现类，调用点与直接调用一样可以被 JIT 内联，原始类型参数不装箱
+ *
+ * 访问权限由调用方传入的 Lookup 决定，一般传 MethodHandles.lookup()
+ * handle、invoker、lambda 按 Lookup 的查找类、访问模式和方法缓存，
+ * 权限较弱的 Lookup 拿不到别的调用方用更强的 Lookup 解析出来的句柄
+ */
+public class Invokers {
+    private static final ConcurrentMap<Signature, Method> METHODS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Key, MethodHandle> HANDLES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Key, Invoker> INVOKERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Key, Object> LAMBDAS = new ConcurrentHashMap<>();
+
+    private Invokers() {}
+
+    /**
+     * 先找 public 方法（包括继承的），再找本类声明的方法
+     */
+    public static Method method(Class<?> type, String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        Signature signature = new Signature(type, name, parameterTypes);
+        Method method = METHODS.get(signature);
+
+        if (method == null) {
+            try {
+                method = type.getMethod(name, parameterTypes);
+            } catch (NoSuchMethodException e) {
+                method = type.getDeclaredMethod(name, parameterTypes);
+            }
+
+            Method previous = METHODS.putIfAbsent(signature, method);
+            method = previous == null ? method : previous;
+        }
+
+        return method;
+    }
+
+    public static MethodHandle handle(MethodHandles.Lookup lookup, Method method) throws IllegalAccessException {
+        Key key = new Key(lookup, null, method);
+        MethodHandle handle = HANDLES.get(key);
+
+        if (handle == null) {
+            handle = lookup.unreflect(method);
+            MethodHandle previous = HANDLES.putIfAbsent(key, handle);
+            handle = previous == null ? handle : previous;
+        }
+
+        return handle;
+    }
+
+    /**
+     * 把任意签名的方法适配成 (Object, Object[])Object，返回值为 void 时得到 null
+     * 参数仍然要装箱，但省掉了每次调用的访问检查和 accessor 的分派
+     */
+    public static Invoker invoker(MethodHandles.Lookup lookup, Method method) throws IllegalAccessException {
+        Key key = new Key(lookup, null, method);
+        Invoker invoker = INVOKERS.get(key);
+
+        if (invoker == null) {
+            MethodHandle handle = handle(lookup, method);
+            int parameterCount = method.getParameterCount();
+
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+
+            MethodHandle spreader = handle
+                    .asType(MethodType.genericMethodType(parameterCount + 1))
+                    .asSpreader(Object[].class, parameterCount);
+
+            invoker = (target, args) -> spreader.invokeExact(target, args);
+            Invoker previous = INVOKERS.putIfAbsent(key, invoker);
+            invoker = previous == null ? invoker : previous;
+        }
+
+        return invoker;
+    }
+
+    /**
+     * 生成 functionalInterface 的实现，调用它的抽象方法即调用 method
+     * 实例方法的接收者是第一个参数，例如 getUserInfo() 可以生成 Function<UserService, UserInfo>
+     *
+     * @throws IllegalArgumentException functionalInterface 不是函数式接口，或者签名与 method 不匹配
+     */
+    public static <F> F lambda(MethodHandles.Lookup lookup, Class<F> functionalInterface, Method method) throws IllegalAccessException {
+        // 实现类生成在 lookup 的查找类里，不同调用方各自生成
+        Key key = new Key(lookup, functionalInterface, method);
+        Object lambda = LAMBDAS.get(key);
+
+        if (lambda == null) {
+            lambda = spinLambda(lookup, functionalInterface, handle(lookup, method));
+            Object previous = LAMBDAS.putIfAbsent(key, lambda);
+            lambda = previous == null ? lambda : previous;
+        }
+
+        return functionalInterface.cast(lambda);
+    }
+
+    private static Object spinLambda(MethodHandles.Lookup lookup, Class<?> functionalInterface, MethodHandle implementation) {
+        Method sam = singleAbstractMethod(functionalInterface);
+        MethodType samType = MethodType.methodType(sam.getReturnType(), sam.getParameterTypes());
+        MethodType implementationType = implementation.type();
+
+        if (samType.parameterCount() != implementationType.parameterCount()) {
+            throw new IllegalArgumentException(sam + " does not match " + implementationType);
+        }
+
+        // 接口方法的参数是引用类型（泛型擦除后是 Object）时，实现方法的原始类型参数要换成包装类型
+        MethodType instantiatedType = implementationType;
+
+        for (int i = 0; i < samType.parameterCount(); i++) {
+            if (!samType.parameterType(i).isPrimitive()) {
+                instantiatedType = instantiatedType.changeParameterType(i, Primitives.wrap(implementationType.parameterType(i)));
+            }
+        }
+
+        if (!samType.returnType().isPrimitive()) {
+            instantiatedType = instantiatedType.changeReturnType(Primitives.wrap(implementationType.returnType()));
+        }
+
+        try {
+            CallSite site = LambdaMetafactory.metafactory(
+                    lookup,
+                    sam.getName(),
+                    MethodType.methodType(functionalInterface),
+                    samType,
+                    implementation,
+                    instantiatedType);
+            return site.getTarget().invoke();
+        } catch (LambdaConversionException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Method singleAbstractMethod(Class<?> functionalInterface) {
+        if (!functionalInterface.isInterface()) {
+            throw new IllegalArgumentException(functionalInterface + " is not an interface");
+        }
+
+        Method sam = null;
+
+        for (Method method : functionalInterface.getMethods()) {
+            if (!Modifier.isAbstract(method.getModifiers()) || isObjectMethod(method)) {
+                continue;
+            }
+
+            if (sam != null) {
+                throw new IllegalArgumentException(functionalInterface + " is not a functional interface");
+            }
+
+            sam = method;
+        }
+
+        if (sam == null) {
+            throw new IllegalArgumentException(functionalInterface + " has no abstract method");
+        }
+
+        return sam;
+    }
+
+    // Comparator 之类的接口会重新声明 equals，不算抽象方法
+    private static boolean isObjectMethod(Method method) {
+        try {
+            Object.class.getMethod(method.getName(), method.getParameterTypes());
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static final class Signature {
+        private final Class<?> type;
+        private final String name;
+        private final Class<?>[] parameterTypes;
+        private final int hash;
+
+        Signature(Class<?> type, String name, Class<?>[] parameterTypes) {
+            this.type = type;
+            this.name = name;
+            this.parameterTypes = parameterTypes.clone();
+            this.hash = (type.hashCode() * 31 + name.hashCode()) * 31 + Arrays.hashCode(parameterTypes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Signature)) {
+                return false;
+            }
+
+            Signature that = (Signature) o;
+            return type == that.type && name.equals(that.name) && Arrays.equals(parameterTypes, that.parameterTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Lookup 的权限由查找类、上一个查找类和访问模式决定，三者相同的 Lookup 解析结果相同
+     * functionalInterface 只在缓存 lambda 时使用，其余为 null
+     */
+    private static final class Key {
+        private final Class<?> lookupClass;
+        private final Class<?> previousLookupClass;
+        private final int lookupModes;
+        private final Class<?> functionalInterface;
+        private final Method method;
+
+        Key(MethodHandles.Lookup lookup, Class<?> functionalInterface, Method method) {
+            this.lookupClass = lookup.lookupClass();
+            this.previousLookupClass = lookup.previousLookupClass();
+            this.lookupModes = lookup.lookupModes();
+            this.functionalInterface = functionalInterface;
+            this.method = method;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key that = (Key) o;
+            return lookupClass == that.lookupClass
+                    && previousLookupClass == that.previousLookupClass
+                    && lookupModes == that.lookupModes
+                    && functionalInterface == that.functionalInterface
+                    && method.equals(that.method);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = lookupClass.hashCode() * 31 + lookupModes;
+            hash = hash * 31 + Objects.hashCode(functionalInterface);
+            return hash * 31 + method.hashCode();
+        }
+    }
+}
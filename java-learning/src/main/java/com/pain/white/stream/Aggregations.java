@@ -0,0 +1,138 @@
+package com.pain.white.stream;
+
+import java.util.EnumMap;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+/**
+ * 一次遍历完成多个分组统计的 Collector
+ *
+ * 枚举键按 ordinal 用数组存放累加器，不需要哈希；合并时逐个下标合并，代价与键的个数有关、与数据量无关
+ * 并发模式下所有线程共享同一个容器（CONCURRENT），完全省掉合并步骤
+ */
+public class Aggregations {
+
+    private Aggregations() {}
+
+    /**
+     * 单个统计值，等价于 Collectors.summarizingDouble
+     */
+    public static <T> Collector<T, ?, Stats> stats(ToDoubleFunction<? super T> mapper) {
+        return Collector.of(
+                StatsAccumulator::new,
+                (acc, t) -> acc.accept(mapper.applyAsDouble(t)),
+                StatsAccumulator::combine,
+                StatsAccumulator::toStats);
+    }
+
+    /**
+     * 等价于 groupingBy(classifier, () -> new EnumMap<>(type), downstream)，只包含出现过的键
+     */
+    public static <T, K extends Enum<K>, A, D> Collector<T, ?, EnumMap<K, D>> groupingByEnum(
+            Class<K> type,
+            Function<? super T, ? extends K> classifier,
+            Collector<? super T, A, D> downstream) {
+        K[] keys = type.getEnumConstants();
+        Supplier<A> supplier = downstream.supplier();
+        BiConsumer<A, ? super T> accumulator = downstream.accumulator();
+        BinaryOperator<A> combiner = downstream.combiner();
+        Function<A, D> finisher = downstream.finisher();
+
+        return Collector.<T, Object[], EnumMap<K, D>>of(
+                () -> new Object[keys.length],
+                (slots, t) -> {
+                    int index = classifier.apply(t).ordinal();
+
+                    if (slots[index] == null) {
+                        slots[index] = supplier.get();
+                    }
+
+                    accumulator.accept(Aggregations.<A>cast(slots[index]), t);
+                },
+                (left, right) -> {
+                    for (int i = 0; i < left.length; i++) {
+                        if (left[i] == null) {
+                            left[i] = right[i];
+                        } else if (right[i] != null) {
+                            left[i] = combiner.apply(Aggregations.<A>cast(left[i]), Aggregations.<A>cast(right[i]));
+                        }
+                    }
+
+                    return left;
+                },
+                slots -> {
+                    EnumMap<K, D> result = new EnumMap<>(type);
+
+                    for (int i = 0; i < slots.length; i++) {
+                        if (slots[i] != null) {
+                            result.put(keys[i], finisher.apply(Aggregations.<A>cast(slots[i])));
+                        }
+                    }
+
+                    return result;
+                });
+    }
+
+    /**
+     * 按枚举分组统计 count/sum/min/max/avg
+     */
+    public static <T, K extends Enum<K>> Collector<T, ?, EnumMap<K, Stats>> statsByEnum(
+            Class<K> type,
+            Function<? super T, ? extends K> classifier,
+            ToDoubleFunction<? super T> mapper) {
+        return groupingByEnum(type, classifier, stats(mapper));
+    }
+
+    /**
+     * statsByEnum 的并发版本，用于并行流：所有线程写同一组分段累加器，没有合并开销
+     * 结果不依赖遇到顺序，但求和的舍入误差可能与顺序版本不同
+     */
+    public static <T, K extends Enum<K>> Collector<T, ?, EnumMap<K, Stats>> concurrentStatsByEnum(
+            Class<K> type,
+            Function<? super T, ? extends K> classifier,
+            ToDoubleFunction<? super T> mapper) {
+        K[] keys = type.getEnumConstants();
+
+        return Collector.<T, ConcurrentStatsAccumulator[], EnumMap<K, Stats>>of(
+                () -> {
+                    ConcurrentStatsAccumulator[] slots = new ConcurrentStatsAccumulator[keys.length];
+
+                    for (int i = 0; i < slots.length; i++) {
+                        slots[i] = new ConcurrentStatsAccumulator();
+                    }
+
+                    return slots;
+                },
+                (slots, t) -> slots[classifier.apply(t).ordinal()].accept(mapper.applyAsDouble(t)),
+                (left, right) -> {
+                    // 只有被 Collectors.teeing 等非并发的 Collector 包装时才会走到这里
+                    for (int i = 0; i < left.length; i++) {
+                        left[i].combine(right[i]);
+                    }
+
+                    return left;
+                },
+                slots -> {
+                    EnumMap<K, Stats> result = new EnumMap<>(type);
+
+                    for (int i = 0; i < slots.length; i++) {
+                        if (slots[i].count() > 0) {
+                            result.put(keys[i], slots[i].toStats());
+                        }
+                    }
+
+                    return result;
+                },
+                Collector.Characteristics.CONCURRENT,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A> A cast(Object slot) {
+        return (A) slot;
+    }
+}
@@ -0,0 +1,38 @@
+package com.pain.white.stream;
+
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 多线程共享的累加器，分段计数，线程间几乎没有竞争
+ * DoubleAdder 的求和顺序不确定，结果可能与顺序求和在最后几位上有差异
+ */
+final class ConcurrentStatsAccumulator {
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+    private final DoubleAccumulator min = new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+    private final DoubleAccumulator max = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
+
+    void accept(double value) {
+        count.increment();
+        sum.add(value);
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    void combine(ConcurrentStatsAccumulator other) {
+        count.add(other.count.sum());
+        sum.add(other.sum.sum());
+        min.accumulate(other.min.get());
+        max.accumulate(other.max.get());
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    Stats toStats() {
+        return new Stats(count.sum(), sum.sum(), min.get(), max.get());
+    }
+}
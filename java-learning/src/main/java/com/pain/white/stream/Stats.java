@@ -0,0 +1,49 @@
+package com.pain.white.stream;
+
+/**
+ * 不可变的统计结果，没有数据时 min/max 为正负无穷，平均值为 0，与 DoubleSummaryStatistics 一致
+ */
+public final class Stats {
+    private final long count;
+    private final double sum;
+    private final double min;
+    private final double max;
+
+    Stats(long count, double sum, double min, double max) {
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double getAverage() {
+        return count > 0 ? sum / count : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return "Stats{" +
+                "count=" + count +
+                ", sum=" + sum +
+                ", min=" + min +
+                ", avg=" + getAverage() +
+                ", max=" + max +
+                '}';
+    }
+}
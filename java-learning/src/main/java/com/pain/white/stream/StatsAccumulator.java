@@ -0,0 +1,49 @@
+package com.pain.white.stream;
+
+/**
+ * 单线程累加器，求和使用 Kahan 补偿，与 Collectors.summarizingDouble 结果一致
+ */
+final class StatsAccumulator {
+    private long count;
+    private double sum;
+    private double compensation;
+    private double simpleSum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    void accept(double value) {
+        count++;
+        simpleSum += value;
+        add(value);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    private void add(double value) {
+        double y = value - compensation;
+        double t = sum + y;
+        compensation = (t - sum) - y;
+        sum = t;
+    }
+
+    StatsAccumulator combine(StatsAccumulator other) {
+        count += other.count;
+        simpleSum += other.simpleSum;
+        add(other.sum);
+        add(-other.compensation);
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    Stats toStats() {
+        double total = sum - compensation;
+
+        // 补偿过程中出现 NaN 说明结果是无穷大
+        if (Double.isNaN(total) && Double.isInfinite(simpleSum)) {
+            total = simpleSum;
+        }
+
+        return new Stats(count, total, min, max);
+    }
+}
@@ -0,0 +1,163 @@
+package com.pain.white.stream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collector;
+
+/**
+ * 代替 sorted(...).limit(k)：只维护 k 个元素的堆，时间 O(n log k)，内存 O(k)
+ *
+ * 每个元素带上到达序号，比较相等时先到的优先，结果与稳定排序后再 limit(k) 完全一致
+ * 并行流中 combiner 的左侧在遇到顺序上总在右侧之前，合并时把右侧的序号整体后移即可保持全局顺序
+ */
+public class TopKCollector<T> {
+    private final int k;
+    private final Comparator<? super T> comparator;
+
+    // 堆顶是当前最差的元素，按需扩容到 k
+    private Object[] heap;
+    private long[] sequences;
+    private int size;
+    private long seen;
+
+    private TopKCollector(int k, Comparator<? super T> comparator) {
+        this.k = k;
+        this.comparator = comparator;
+        this.heap = new Object[Math.min(k, 16)];
+        this.sequences = new long[heap.length];
+    }
+
+    /**
+     * 等价于 sorted(comparator).limit(k)
+     */
+    public static <T> Collector<T, ?, List<T>> least(int k, Comparator<? super T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+
+        return Collector.of(
+                () -> new TopKCollector<T>(k, comparator),
+                TopKCollector::add,
+                TopKCollector::merge,
+                TopKCollector::toList);
+    }
+
+    /**
+     * 等价于 sorted(comparator.reversed()).limit(k)
+     */
+    public static <T> Collector<T, ?, List<T>> greatest(int k, Comparator<? super T> comparator) {
+        return least(k, comparator.reversed());
+    }
+
+    private void add(T element) {
+        offer(element, seen++);
+    }
+
+    private void offer(T element, long sequence) {
+        if (k == 0) {
+            return;
+        }
+
+        if (size < k) {
+            if (size == heap.length) {
+                int capacity = (int) Math.min(k, size * 2L);
+                heap = Arrays.copyOf(heap, capacity);
+                sequences = Arrays.copyOf(sequences, capacity);
+            }
+
+            heap[size] = element;
+            sequences[size] = sequence;
+            siftUp(size++);
+        } else if (better(element, sequence, elementAt(0), sequences[0])) {
+            heap[0] = element;
+            sequences[0] = sequence;
+            siftDown(0, size);
+        }
+    }
+
+    private TopKCollector<T> merge(TopKCollector<T> right) {
+        long offset = seen;
+
+        for (int i = 0; i < right.size; i++) {
+            offer(right.elementAt(i), right.sequences[i] + offset);
+        }
+
+        seen += right.seen;
+        return this;
+    }
+
+    private List<T> toList() {
+        // 堆排序：每次把最差的换到末尾
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+
+        List<T> result = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            result.add(elementAt(i));
+        }
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T elementAt(int index) {
+        return (T) heap[index];
+    }
+
+    private boolean better(T a, long sequenceA, T b, long sequenceB) {
+        int cmp = comparator.compare(a, b);
+        return cmp < 0 || (cmp == 0 && sequenceA < sequenceB);
+    }
+
+    private boolean better(int i, int j) {
+        return better(elementAt(i), sequences[i], elementAt(j), sequences[j]);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+
+            if (!better(parent, index)) {
+                break;
+            }
+
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index, int heapSize) {
+        int half = heapSize >>> 1;
+
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+
+            if (right < heapSize && better(child, right)) {
+                child = right;
+            }
+
+            if (!better(index, child)) {
+                break;
+            }
+
+            swap(index, child);
+            index = child;
+        }
+    }
+
+    private void swap(int i, int j) {
+        Object element = heap[i];
+        heap[i] = heap[j];
+        heap[j] = element;
+
+        long sequence = sequences[i];
+        sequences[i] = sequences[j];
+        sequences[j] = sequence;
+    }
+}
@@ -0,0 +1,284 @@
+package com.pain.white.text;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 按码点计数，代替 HashMultiset<Character>：不装箱，每个字符只是一次数组自增
+ *
+ * BMP 内的字符（包括全部常用汉字）直接用 long[65536] 下标计数；
+ * 增补平面的字符很少见，放在开放寻址的原始类型哈希表中
+ *
+ * 不是线程安全的，并行计数时每个线程用自己的实例，最后 merge
+ */
+public class CharFrequency {
+    private static final int BMP_SIZE = 0x10000;
+    private static final int MIN_PARALLEL_CHUNK = 1 << 16;
+    private static final int CODE_POINT_BITS = 21;
+    private static final long CODE_POINT_MASK = (1L << CODE_POINT_BITS) - 1;
+
+    private final long[] bmp = new long[BMP_SIZE];
+    private final SupplementaryTable supplementary = new SupplementaryTable();
+    private long total;
+
+    public void add(char c) {
+        bmp[c]++;
+        total++;
+    }
+
+    public void addCodePoint(int codePoint) {
+        if (codePoint < BMP_SIZE) {
+            bmp[codePoint]++;
+        } else {
+            supplementary.increment(codePoint, 1);
+        }
+
+        total++;
+    }
+
+    public CharFrequency addAll(CharSequence text) {
+        return addAll(text, 0, text.length());
+    }
+
+    /**
+     * 成对的代理项按一个码点计数，落单的代理项按 char 计数
+     */
+    public CharFrequency addAll(CharSequence text, int from, int to) {
+        long[] counts = bmp;
+        int i = from;
+
+        while (i < to) {
+            char c = text.charAt(i++);
+
+            if (Character.isHighSurrogate(c) && i < to && Character.isLowSurrogate(text.charAt(i))) {
+                supplementary.increment(Character.toCodePoint(c, text.charAt(i++)), 1);
+            } else {
+                counts[c]++;
+            }
+
+            total++;
+        }
+
+        return this;
+    }
+
+    public CharFrequency addAll(char[] chars) {
+        long[] counts = bmp;
+        int i = 0;
+
+        while (i < chars.length) {
+            char c = chars[i++];
+
+            if (Character.isHighSurrogate(c) && i < chars.length && Character.isLowSurrogate(chars[i])) {
+                supplementary.increment(Character.toCodePoint(c, chars[i++]), 1);
+            } else {
+                counts[c]++;
+            }
+
+            total++;
+        }
+
+        return this;
+    }
+
+    public CharFrequency merge(CharFrequency other) {
+        for (int i = 0; i < BMP_SIZE; i++) {
+            bmp[i] += other.bmp[i];
+        }
+
+        other.supplementary.forEach(supplementary::increment);
+        total += other.total;
+        return this;
+    }
+
+    public long count(int codePoint) {
+        return codePoint < BMP_SIZE ? bmp[codePoint] : supplementary.get(codePoint);
+    }
+
+    /**
+     * 所有码点的计数之和，对应 Multiset.size()
+     */
+    public long total() {
+        return total;
+    }
+
+    public int distinct() {
+        int distinct = supplementary.size();
+
+        for (long count : bmp) {
+            if (count > 0) {
+                distinct++;
+            }
+        }
+
+        return distinct;
+    }
+
+    /**
+     * 按次数降序返回前 n 个，次数相同时码点小的在前
+     * 把 (次数, 反转后的码点) 打包进一个 long 后排序，不为每个码点创建对象
+     */
+    public List<Frequency> topN(int n) {
+        long[] packed = new long[distinct()];
+        int size = 0;
+
+        for (int i = 0; i < BMP_SIZE; i++) {
+            if (bmp[i] > 0) {
+                packed[size++] = pack(i, bmp[i]);
+            }
+        }
+
+        int[] index = {size};
+        supplementary.forEach((codePoint, count) -> packed[index[0]++] = pack(codePoint, count));
+        size = index[0];
+
+        Arrays.sort(packed, 0, size);
+
+        int limit = Math.min(n, size);
+        List<Frequency> result = new ArrayList<>(limit);
+
+        for (int i = size - 1; i >= size - limit; i--) {
+            result.add(new Frequency(Character.MAX_CODE_POINT - (int) (packed[i] & CODE_POINT_MASK), packed[i] >>> CODE_POINT_BITS));
+        }
+
+        return result;
+    }
+
+    private static long pack(int codePoint, long count) {
+        return (count << CODE_POINT_BITS) | (Character.MAX_CODE_POINT - codePoint);
+    }
+
+    /**
+     * 按 CPU 核数切分文本并行计数，每段一个计数器，最后合并
+     */
+    public static CharFrequency countParallel(CharSequence text) {
+        int length = text.length();
+        int chunks = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4, length / MIN_PARALLEL_CHUNK));
+        int[] bounds = new int[chunks + 1];
+        bounds[chunks] = length;
+
+        for (int i = 1; i < chunks; i++) {
+            int bound = (int) ((long) length * i / chunks);
+
+            // 不能把代理对拆到两段
+            if (bound > 0 && Character.isHighSurrogate(text.charAt(bound - 1)) && Character.isLowSurrogate(text.charAt(bound))) {
+                bound++;
+            }
+
+            bounds[i] = bound;
+        }
+
+        return IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(i -> new CharFrequency().addAll(text, bounds[i], Math.max(bounds[i], bounds[i + 1])))
+                .reduce(CharFrequency::merge)
+                .orElseGet(CharFrequency::new);
+    }
+
+    public static final class Frequency {
+        private final int codePoint;
+        private final long count;
+
+        Frequency(int codePoint, long count) {
+            this.codePoint = codePoint;
+            this.count = count;
+        }
+
+        public int getCodePoint() {
+            return codePoint;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return new String(Character.toChars(codePoint)) + " x " + count;
+        }
+    }
+
+    @FunctionalInterface
+    interface CodePointCountConsumer {
+        void accept(int codePoint, long count);
+    }
+
+    /**
+     * 键为码点、值为次数的线性探测哈希表；增补平面码点都大于 0，用 0 表示空槽
+     */
+    static final class SupplementaryTable {
+        private int[] keys = new int[16];
+        private long[] values = new long[16];
+        private int size;
+
+        void increment(int codePoint, long delta) {
+            int mask = keys.length - 1;
+            int index = mix(codePoint) & mask;
+
+            while (keys[index] != 0) {
+                if (keys[index] == codePoint) {
+                    values[index] += delta;
+                    return;
+                }
+
+                index = (index + 1) & mask;
+            }
+
+            keys[index] = codePoint;
+            values[index] = delta;
+
+            // 负载因子 0.5
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+        }
+
+        long get(int codePoint) {
+            int mask = keys.length - 1;
+            int index = mix(codePoint) & mask;
+
+            while (keys[index] != 0) {
+                if (keys[index] == codePoint) {
+                    return values[index];
+                }
+
+                index = (index + 1) & mask;
+            }
+
+            return 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void forEach(CodePointCountConsumer consumer) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    consumer.accept(keys[i], values[i]);
+                }
+            }
+        }
+
+        private void resize() {
+            int[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new long[oldValues.length * 2];
+            size = 0;
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    increment(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
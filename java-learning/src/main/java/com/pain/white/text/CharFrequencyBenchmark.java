@@ -0,0 +1,67 @@
+package com.pain.white.text;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+import com.google.common.primitives.Chars;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CharFrequencyBenchmark {
+
+    // 字符数
+    @Param({"1048576", "67108864"})
+    public int length;
+
+    private char[] chars;
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        chars = new char[length];
+
+        for (int i = 0; i < length; i++) {
+            // 常用汉字集中在 CJK 统一表意文字区的前半部分，用偏斜分布模拟词频
+            int offset = (int) Math.abs(random.nextGaussian() * 1500);
+            chars[i] = (char) (0x4E00 + Math.min(offset, 0x51FF));
+        }
+
+        text = new String(chars);
+    }
+
+    @Benchmark
+    public int hashMultiset() {
+        Multiset<Character> multiset = HashMultiset.create();
+        Chars.asList(chars).stream().forEach(multiset::add);
+        return multiset.count('春');
+    }
+
+    @Benchmark
+    public long charFrequency() {
+        return new CharFrequency().addAll(chars).count('春');
+    }
+
+    @Benchmark
+    public long charFrequencyParallel() {
+        return CharFrequency.countParallel(text).count('春');
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CharFrequencyBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -1,25 +1,25 @@
 package com.pain.white.thread;
 
+import com.pain.white.thread.worker.TaskHandle;
+import com.pain.white.thread.worker.WorkerRuntime;
+
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class ExceptionThread {
+    private static final Logger LOGGER = Logger.getLogger(ExceptionThread.class.getName());
+
     public static void main(String[] args) throws InterruptedException {
-        Thread.setDefaultUncaughtExceptionHandler(new ThreadExceptionHandler());
-        Runnable run = () -> {
+        // 异常按任务交给处理器，不再设置全局的 UncaughtExceptionHandler，工作线程也不会因此退出
+        WorkerRuntime runtime = WorkerRuntime.builder("exception").workers(1).build();
+        runtime.submit("crash", token -> {
             throw new RuntimeException("crashed");
-        };
-        Thread thread = new Thread(run);
-        thread.start();
-        thread.join();
+        }, ExceptionThread::handleException);
+        runtime.shutdown(1, TimeUnit.SECONDS);
     }
 
-    static class ThreadExceptionHandler implements Thread.UncaughtExceptionHandler {
-
-        @Override
-        public void uncaughtException(Thread t, Throwable e) {
-            Logger logger = Logger.getAnonymousLogger();
-            logger.log(Level.WARNING, "catch exception: ", e);
-        }
+    private static void handleException(TaskHandle task, Throwable e) {
+        LOGGER.log(Level.WARNING, "catch exception from " + task.getName() + ": ", e);
     }
 }
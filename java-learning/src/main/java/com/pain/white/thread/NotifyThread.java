@@ -1,13 +1,20 @@
 package com.pain.white.thread;
 
+import com.pain.white.thread.pipeline.Backpressure;
+import com.pain.white.thread.pipeline.BatchingStage;
+import com.pain.white.thread.worker.WorkerRuntime;
+
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class NotifyThread {
     private static final Object resource = new Object();
 
     public static void main(String[] args) throws InterruptedException {
         // notifyThread();
-        productAndConsume();
+        productAndConsume(true);
     }
 
     // 使用 synchronized, wait, notify 交替打印 1 - 100
@@ -35,9 +42,12 @@ public class NotifyThread {
             // 5. 释放锁
         };
 
-        Thread thread1 = new Thread(run);
-        Thread thread2 = new Thread(run);
-        Thread thread3 = new Thread(() -> {
+        WorkerRuntime runtime = WorkerRuntime.builder("notify").workers(3).build();
+        runtime.submit(token -> run.run());
+        runtime.submit(token -> run.run());
+
+        Thread.sleep(100);
+        runtime.submit(token -> {
             synchronized (resource) {
                 System.out.printf("Thread %s get lock\n", Thread.currentThread().getName());
                 System.out.printf("Thread %s notify begin\n", Thread.currentThread().getName());
@@ -46,47 +56,48 @@ public class NotifyThread {
                 System.out.printf("Thread %s notify end\n", Thread.currentThread().getName());
             }
         });
-        thread1.start();
-        thread2.start();
 
-        Thread.sleep(100);
-        thread3.start();
+        // 只 notify 一次，另一个线程会一直 wait，超时后被取消
+        runtime.shutdown(1, TimeUnit.SECONDS);
     }
 
-    private static void productAndConsume() throws InterruptedException {
-        Queue<String> queue = new Queue<>(5);
-        Thread consumer = new Thread(() -> {
-            while (!Thread.interrupted()) {
-                try {
-                    Thread.sleep(10000);
-                    String data = queue.take();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    Thread.currentThread().interrupt();
-                }
+    private static void productAndConsume(boolean virtual) throws InterruptedException {
+        // 消费者每次取一批，每批加一次锁、打印一次；积压到 5 个时阻塞生产者，消费到 2 个以下再放行
+        BatchingStage<String> stage = BatchingStage.builder()
+                .maxBatch(4)
+                .maxWait(1, TimeUnit.MILLISECONDS)
+                .watermarks(5, 2)
+                .backpressure(Backpressure.BLOCK)
+                .build();
+        WorkerRuntime runtime = WorkerRuntime.builder("queue").workers(2).virtualThreads(virtual).build();
+        runtime.submit("consumer", token -> {
+            List<String> batch = new ArrayList<>();
+
+            while (!token.isCancelled()) {
+                Thread.sleep(100);
+                stage.drainBatch(batch);
+                System.out.printf("[consumer], take: %s, size: %d\n", batch, stage.size());
+                batch.clear();
             }
         });
-        Thread producer = new Thread(() -> {
+        runtime.submit("producer", token -> {
             int count = 0;
-            while (!Thread.interrupted()) {
-                try {
-                    Thread.sleep(10);
-                    count++;
-                    queue.put(String.valueOf(count));
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                    Thread.currentThread().interrupt();
-                }
+
+            while (!token.isCancelled()) {
+                Thread.sleep(10);
+                count++;
+                stage.submit(String.valueOf(count));
             }
         });
 
-        consumer.start();
-        producer.start();
+        // 1 秒后到达截止时间，两个任务都被取消，阻塞中的 sleep/submit 被中断
         Thread.sleep(1000);
-        producer.interrupt();
-        consumer.interrupt();
+        runtime.shutdown(0, TimeUnit.MILLISECONDS);
+        System.out.println(stage.stats());
+        System.out.println(runtime.metrics());
     }
 
+    // synchronized + wait/notify 实现的阻塞队列，作为 BoundedQueue 的对照
     static class Queue<T> {
         private int capacity;
         private LinkedList<T> dataList;
@@ -104,7 +115,6 @@ public class NotifyThread {
                 }
 
                 dataList.add(data);
-                System.out.printf("[producer], put: %s, size: %d\n", data, dataList.size());
                 notify();
             }
         }
@@ -118,11 +128,34 @@ public class NotifyThread {
                 }
 
                 data = dataList.poll();
-                System.out.printf("[consumer], take: %s, size: %d\n", data, dataList.size());
                 notify();
             }
 
             return data;
         }
+
+        public boolean offer(T data) {
+            synchronized (this) {
+                if (dataList.size() >= capacity) {
+                    return false;
+                }
+
+                dataList.add(data);
+                notify();
+                return true;
+            }
+        }
+
+        public T poll() {
+            synchronized (this) {
+                T data = dataList.poll();
+
+                if (data != null) {
+                    notify();
+                }
+
+                return data;
+            }
+        }
     }
 }
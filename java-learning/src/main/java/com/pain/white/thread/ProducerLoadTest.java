@@ -0,0 +1,81 @@
+package com.pain.white.thread;
+
+import com.pain.white.thread.queue.BoundedQueue;
+import com.pain.white.thread.queue.RingQueues;
+import com.pain.white.thread.worker.WorkerRuntime;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 大量阻塞型生产者的压测：每个生产者 sleep 模拟一次 I/O，然后把数据放入队列，少量消费者取出
+ * 分别用平台线程和虚拟线程运行，比较耗时、吞吐和峰值线程数
+ *
+ * 参数：[生产者数] [每个生产者的条数] [每次 I/O 的毫秒数] [消费者数]，默认 10000 20 10 4
+ */
+public class ProducerLoadTest {
+
+    public static void main(String[] args) throws InterruptedException {
+        int producers = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int items = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int ioMillis = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int consumers = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+
+        // 先跑虚拟线程：平台线程模式结束后上万个线程退出需要时间，会干扰之后的峰值线程数
+        run(true, producers, items, ioMillis, consumers);
+        run(false, producers, items, ioMillis, consumers);
+    }
+
+    private static void run(boolean virtual, int producers, int items, int ioMillis, int consumers) throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+
+        BoundedQueue<Long> queue = RingQueues.locking(1024);
+        WorkerRuntime runtime = WorkerRuntime.builder(virtual ? "virtual" : "platform")
+                .workers(producers + consumers)
+                .queueCapacity(producers + consumers)
+                .virtualThreads(virtual)
+                .build();
+
+        long total = (long) producers * items;
+        AtomicLong remaining = new AtomicLong(total);
+        CountDownLatch done = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < consumers; i++) {
+            runtime.submit("consumer-" + i, token -> {
+                while (!token.isCancelled()) {
+                    queue.take();
+
+                    if (remaining.decrementAndGet() == 0) {
+                        done.countDown();
+                    }
+                }
+            });
+        }
+
+        for (int i = 0; i < producers; i++) {
+            long base = (long) i * items;
+            runtime.submit("producer-" + i, token -> {
+                for (int j = 0; j < items && !token.isCancelled(); j++) {
+                    Thread.sleep(ioMillis);
+                    queue.put(base + j);
+                }
+            });
+        }
+
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        // 消费者还阻塞在 take 上，直接取消
+        runtime.shutdown(0, TimeUnit.MILLISECONDS);
+        runtime.awaitTermination(10, TimeUnit.SECONDS);
+
+        System.out.printf("%-8s producers: %d, items: %d, elapsed: %dms, throughput: %.0f items/s, peak platform threads: %d%n",
+                virtual ? "virtual" : "platform", producers, total,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), total * 1e9 / elapsed, threads.getPeakThreadCount());
+        System.out.println(runtime.metrics());
+    }
+}
@@ -0,0 +1,146 @@
+package com.pain.white.thread;
+
+import com.pain.white.thread.queue.BoundedQueue;
+import com.pain.white.thread.queue.RingQueues;
+import com.pain.white.thread.queue.WaitStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Control;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 生产者/消费者分组压测，吞吐用 Throughput，单次 offer/poll 延迟分布用 SampleTime
+ * 用非阻塞的 offer/poll 自旋，迭代结束时不会有线程卡在 put/take 上
+ * spsc 只在单生产者单消费者时正确，只出现在 oneToOne 分组的参数里
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueBenchmark {
+
+    private static final Integer ELEMENT = 1;
+
+    interface QueueAdapter {
+        boolean offer(Integer data);
+
+        Integer poll();
+    }
+
+    @State(Scope.Group)
+    public static class OneToOne {
+        @Param({"legacy", "abq", "locking", "spsc", "mpmc"})
+        public String impl;
+
+        @Param({"1024"})
+        public int capacity;
+
+        QueueAdapter queue;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            queue = create(impl, capacity);
+        }
+    }
+
+    @State(Scope.Group)
+    public static class FourToFour {
+        @Param({"legacy", "abq", "locking", "mpmc"})
+        public String impl;
+
+        @Param({"1024"})
+        public int capacity;
+
+        QueueAdapter queue;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            queue = create(impl, capacity);
+        }
+    }
+
+    static QueueAdapter create(String impl, int capacity) {
+        switch (impl) {
+            case "legacy":
+                NotifyThread.Queue<Integer> legacy = new NotifyThread.Queue<>(capacity);
+                return new QueueAdapter() {
+                    public boolean offer(Integer data) { return legacy.offer(data); }
+                    public Integer poll() { return legacy.poll(); }
+                };
+            case "abq":
+                ArrayBlockingQueue<Integer> abq = new ArrayBlockingQueue<>(capacity);
+                return new QueueAdapter() {
+                    public boolean offer(Integer data) { return abq.offer(data); }
+                    public Integer poll() { return abq.poll(); }
+                };
+            case "locking":
+                return adapt(RingQueues.locking(capacity));
+            case "spsc":
+                return adapt(RingQueues.spsc(capacity, WaitStrategy.SPIN));
+            case "mpmc":
+                return adapt(RingQueues.mpmc(capacity, WaitStrategy.SPIN));
+            default:
+                throw new IllegalArgumentException("unknown impl: " + impl);
+        }
+    }
+
+    private static QueueAdapter adapt(BoundedQueue<Integer> ring) {
+        return new QueueAdapter() {
+            public boolean offer(Integer data) { return ring.offer(data); }
+            public Integer poll() { return ring.poll(); }
+        };
+    }
+
+    @Benchmark
+    @Group("oneToOne")
+    @GroupThreads(1)
+    public void offer1(OneToOne state, Control control) {
+        while (!state.queue.offer(ELEMENT) && !control.stopMeasurement) {
+        }
+    }
+
+    @Benchmark
+    @Group("oneToOne")
+    @GroupThreads(1)
+    public Integer poll1(OneToOne state, Control control) {
+        Integer data = null;
+
+        while (!control.stopMeasurement && (data = state.queue.poll()) == null) {
+        }
+
+        return data;
+    }
+
+    @Benchmark
+    @Group("fourToFour")
+    @GroupThreads(4)
+    public void offer4(FourToFour state, Control control) {
+        while (!state.queue.offer(ELEMENT) && !control.stopMeasurement) {
+        }
+    }
+
+    @Benchmark
+    @Group("fourToFour")
+    @GroupThreads(4)
+    public Integer poll4(FourToFour state, Control control) {
+        Integer data = null;
+
+        while (!control.stopMeasurement && (data = state.queue.poll()) == null) {
+        }
+
+        return data;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(QueueBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
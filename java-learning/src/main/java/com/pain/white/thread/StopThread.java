@@ -1,16 +1,24 @@
 package com.pain.white.thread;
 
+import com.pain.white.thread.worker.TaskHandle;
+import com.pain.white.thread.worker.WorkerRuntime;
+
+import java.util.concurrent.TimeUnit;
+
 public class StopThread {
 
     public static void main(String[] args) throws InterruptedException {
-        interruptBlockedThread();
+        cancelBlockedTask();
     }
 
-    private static void interruptBlockedThread() throws InterruptedException {
-        Runnable run = () -> {
+    private static void cancelBlockedTask() throws InterruptedException {
+        WorkerRuntime runtime = WorkerRuntime.builder("stop").workers(1).build();
+
+        // 任务检查取消令牌退出循环；阻塞在 sleep 上时取消会中断工作线程
+        TaskHandle handle = runtime.submit(token -> {
             int count = 0;
 
-            while (!Thread.currentThread().isInterrupted() && count <= 1000) {
+            while (!token.isCancelled() && count <= 1000) {
                 count++;
 
                 if (count % 100 == 0) {
@@ -20,13 +28,15 @@ public class StopThread {
                     } catch (InterruptedException e) {
                         System.out.println(e.getMessage());
                         Thread.currentThread().interrupt();
+                        return;
                     }
                 }
             }
-        };
-        Thread thread = new Thread(run);
-        thread.start();
+        });
+
         Thread.sleep(5000);
-        thread.interrupt();
+        handle.cancel(true);
+        runtime.shutdown(1, TimeUnit.SECONDS);
+        System.out.println(runtime.metrics());
     }
 }
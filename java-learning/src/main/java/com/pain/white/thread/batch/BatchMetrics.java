@@ -0,0 +1,92 @@
+package com.pain.white.thread.batch;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChunkedBatchExecutor 某一时刻的指标快照，各项分别读取，彼此之间不保证严格一致
+ */
+public final class BatchMetrics {
+    private final long batches;
+    private final long elements;
+    private final long chunks;
+    private final long retries;
+    private final long failedChunks;
+    private final long totalBatchNanos;
+    private final long totalChunkNanos;
+    private final long maxChunkNanos;
+    private final int lastChunkSize;
+
+    BatchMetrics(long batches, long elements, long chunks, long retries, long failedChunks,
+                 long totalBatchNanos, long totalChunkNanos, long maxChunkNanos, int lastChunkSize) {
+        this.batches = batches;
+        this.elements = elements;
+        this.chunks = chunks;
+        this.retries = retries;
+        this.failedChunks = failedChunks;
+        this.totalBatchNanos = totalBatchNanos;
+        this.totalChunkNanos = totalChunkNanos;
+        this.maxChunkNanos = maxChunkNanos;
+        this.lastChunkSize = lastChunkSize;
+    }
+
+    /**
+     * 成功完成的批次
+     */
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getElements() {
+        return elements;
+    }
+
+    /**
+     * 成功完成的块，不含重试失败的尝试
+     */
+    public long getChunks() {
+        return chunks;
+    }
+
+    public long getRetries() {
+        return retries;
+    }
+
+    public long getFailedChunks() {
+        return failedChunks;
+    }
+
+    /**
+     * 按批次的墙钟时间计算的吞吐，每秒处理的元素个数
+     */
+    public double getThroughput() {
+        return totalBatchNanos == 0 ? 0.0 : elements * 1e9 / totalBatchNanos;
+    }
+
+    public double getAvgBatchTime(TimeUnit unit) {
+        return batches == 0 ? 0.0 : (double) totalBatchNanos / batches / unit.toNanos(1);
+    }
+
+    public double getAvgChunkTime(TimeUnit unit) {
+        return chunks == 0 ? 0.0 : (double) totalChunkNanos / chunks / unit.toNanos(1);
+    }
+
+    public double getMaxChunkTime(TimeUnit unit) {
+        return (double) maxChunkNanos / unit.toNanos(1);
+    }
+
+    /**
+     * 最近一批选定的块大小
+     */
+    public int getLastChunkSize() {
+        return lastChunkSize;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("batches: %d, elements: %d, chunks: %d, retries: %d, failed chunks: %d, "
+                        + "throughput: %.0f/s, avg batch: %.3fms, avg chunk: %.3fms, max chunk: %.3fms, chunk size: %d",
+                batches, elements, chunks, retries, failedChunks, getThroughput(),
+                getAvgBatchTime(TimeUnit.MILLISECONDS), getAvgChunkTime(TimeUnit.MILLISECONDS),
+                getMaxChunkTime(TimeUnit.MILLISECONDS), lastChunkSize);
+    }
+}
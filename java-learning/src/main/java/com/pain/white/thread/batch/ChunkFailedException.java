@@ -0,0 +1,31 @@
+package com.pain.white.thread.batch;
+
+/**
+ * 某一块重试之后仍然失败，整批放弃；cause 是最后一次失败的异常
+ */
+public class ChunkFailedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int fromIndex;
+    private final int toIndex;
+    private final int attempts;
+
+    ChunkFailedException(int fromIndex, int toIndex, int attempts, Throwable cause) {
+        super("chunk [" + fromIndex + ", " + toIndex + ") failed after " + attempts + " attempts", cause);
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+        this.attempts = attempts;
+    }
+
+    public int getFromIndex() {
+        return fromIndex;
+    }
+
+    public int getToIndex() {
+        return toIndex;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+}
@@ -0,0 +1,86 @@
+package com.pain.white.thread.batch;
+
+import com.google.common.collect.Lists;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 串行遍历 Lists.partition 与 ChunkedBatchExecutor 对比，每个元素做一小段整数运算
+ * cost 控制每个元素的迭代次数，1 时调度开销占主导，256 时计算占主导
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ChunkedBatchBenchmark {
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"1", "256"})
+    public int cost;
+
+    private List<Integer> items;
+    private ChunkedBatchExecutor executor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        items = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            items.add(i);
+        }
+
+        executor = ChunkedBatchExecutor.builder().build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println();
+        System.out.println(executor.metrics());
+    }
+
+    @Benchmark
+    public List<Long> serialPartition() {
+        List<Long> results = new ArrayList<>(size);
+
+        for (List<Integer> chunk : Lists.partition(items, 1024)) {
+            for (Integer item : chunk) {
+                results.add(work(item));
+            }
+        }
+
+        return results;
+    }
+
+    @Benchmark
+    public List<Long> chunkedExecutor() {
+        return executor.map(items, this::work);
+    }
+
+    private long work(int item) {
+        long x = item;
+
+        for (int i = 0; i < cost; i++) {
+            x = x * 6364136223846793005L + 1442695040888963407L;
+        }
+
+        return x;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ChunkedBatchBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
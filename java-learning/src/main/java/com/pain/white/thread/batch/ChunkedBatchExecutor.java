@@ -0,0 +1,328 @@
+package com.pain.white.thread.batch;
+
+import com.google.common.collect.Lists;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 把一个大 List 用 Lists.partition 切块，在 ForkJoinPool 上并行处理，代替串行地遍历 partition 的写法
+ *
+ * 1. 块大小默认自适应：先在调用线程上处理一小段样本，测出单个元素的耗时，
+ *    让每块耗时接近 targetChunkTime，同时保证块数不少于并行度的 CHUNKS_PER_WORKER 倍，
+ *    廉价元素的块足够大以摊薄调度开销，昂贵元素的块足够小以便工作窃取平衡负载
+ * 2. 块按区间二分成 RecursiveAction，空闲的工作线程从别的线程的队列尾部窃取较大的区间
+ * 3. map 按原顺序合并结果；mapUnordered 每完成一块就把这一块的结果交给调用方，不等其它块
+ * 4. 某一块抛出 RuntimeException 时整块重试，超过 maxRetries 次后整批以 ChunkFailedException 失败，
+ *    因此传入的函数和 forEach 的操作如果有副作用，必须是幂等的
+ * 5. 提供批次、元素、块、重试的计数，吞吐和块耗时等指标
+ */
+public class ChunkedBatchExecutor {
+    /**
+     * 自适应时用于估算单个元素耗时的样本，分几轮计时取最快的一轮，
+     * 第一轮往往包含类加载、lambda 初始化这类一次性开销，会把耗时估高几十倍
+     */
+    static final int SAMPLE_ROUNDS = 4;
+    static final int SAMPLE_ROUND_SIZE = 16;
+
+    /**
+     * 每个工作线程至少分到的块数，块太少时一个慢块就决定了整批的耗时
+     */
+    static final int CHUNKS_PER_WORKER = 4;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final long targetChunkNanos;
+    private final int maxRetries;
+    private final Counters counters = new Counters();
+    private volatile int lastChunkSize;
+
+    private ChunkedBatchExecutor(Builder builder) {
+        this.pool = builder.pool;
+        this.chunkSize = builder.chunkSize;
+        this.targetChunkNanos = builder.targetChunkNanos;
+        this.maxRetries = builder.maxRetries;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 结果的顺序和 items 一致
+     */
+    public <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> function) {
+        Object[] results = new Object[items.size()];
+        run(items, (chunk, offset) -> {
+            // 重试时覆盖同样的位置，不需要先写到临时数组
+            for (int i = 0; i < chunk.size(); i++) {
+                results[offset + i] = function.apply(chunk.get(i));
+            }
+
+            return null;
+        }, null);
+
+        @SuppressWarnings("unchecked")
+        List<R> list = (List<R>) Collections.unmodifiableList(Arrays.asList(results));
+        return list;
+    }
+
+    /**
+     * 每一块全部成功后才把它的结果交给 chunkConsumer，块与块之间没有顺序，
+     * chunkConsumer 会被多个工作线程同时调用，必须是线程安全的
+     * 只有 function 失败时重试，每块只交给 chunkConsumer 一次，chunkConsumer 抛出的异常不重试，直接让整批失败
+     */
+    public <T, R> void mapUnordered(List<T> items, Function<? super T, ? extends R> function,
+                                    Consumer<? super List<R>> chunkConsumer) {
+        run(items, (chunk, offset) -> {
+            List<R> results = new ArrayList<>(chunk.size());
+
+            for (T item : chunk) {
+                results.add(function.apply(item));
+            }
+
+            return results;
+        }, chunkConsumer);
+    }
+
+    /**
+     * 失败的块会整块重做，action 必须是幂等的
+     */
+    public <T> void forEach(List<T> items, Consumer<? super T> action) {
+        run(items, (chunk, offset) -> {
+            for (T item : chunk) {
+                action.accept(item);
+            }
+
+            return null;
+        }, null);
+    }
+
+    public BatchMetrics metrics() {
+        return new BatchMetrics(
+                counters.batches.sum(),
+                counters.elements.sum(),
+                counters.chunks.sum(),
+                counters.retries.sum(),
+                counters.failedChunks.sum(),
+                counters.batchNanos.sum(),
+                counters.chunkNanos.sum(),
+                counters.maxChunkNanos.get(),
+                lastChunkSize);
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * @param completion 每块成功后用 body 的结果调用一次，不参与重试，可以为 null
+     * @throws ChunkFailedException 某一块重试之后仍然失败
+     */
+    private <T, R> void run(List<T> items, ChunkBody<T, R> body, Consumer<? super R> completion) {
+        // partition 的子列表是 subList 视图，LinkedList 上每次 get 都要从头走
+        List<T> source = items instanceof RandomAccess ? items : new ArrayList<>(items);
+        int size = source.size();
+
+        if (size == 0) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        int offset = 0;
+        int chunk;
+
+        if (chunkSize > 0) {
+            chunk = chunkSize;
+        } else {
+            // 样本本身就是开头的几块，在调用线程上处理，不浪费
+            long nanosPerElement = Long.MAX_VALUE;
+
+            for (int round = 0; round < SAMPLE_ROUNDS && offset < size; round++) {
+                int end = Math.min(offset + SAMPLE_ROUND_SIZE, size);
+                long nanos = runChunk(source.subList(offset, end), offset, body, completion);
+                nanosPerElement = Math.min(nanosPerElement, nanos / (end - offset));
+                offset = end;
+            }
+
+            chunk = adaptiveChunkSize(nanosPerElement, size - offset);
+        }
+
+        lastChunkSize = chunk;
+
+        if (offset < size) {
+            List<List<T>> chunks = Lists.partition(source.subList(offset, size), chunk);
+            pool.invoke(new ChunkTask<>(this, chunks, offset, chunk, 0, chunks.size(), body, completion));
+        }
+
+        counters.batches.increment();
+        counters.elements.add(size);
+        counters.batchNanos.add(System.nanoTime() - start);
+    }
+
+    int adaptiveChunkSize(long nanosPerElement, int remaining) {
+        long byCost = targetChunkNanos / Math.max(1, nanosPerElement);
+        long chunks = (long) pool.getParallelism() * CHUNKS_PER_WORKER;
+        long byBalance = (remaining + chunks - 1) / chunks;
+        return (int) Math.max(1, Math.min(byCost, byBalance));
+    }
+
+    /**
+     * @return 成功那一次的耗时，不含 completion
+     */
+    private <T, R> long runChunk(List<T> chunk, int offset, ChunkBody<T, R> body, Consumer<? super R> completion) {
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            R result;
+
+            try {
+                result = body.run(chunk, offset);
+            } catch (RuntimeException e) {
+                if (attempt > maxRetries) {
+                    counters.failedChunks.increment();
+                    throw new ChunkFailedException(offset, offset + chunk.size(), attempt, e);
+                }
+
+                counters.retries.increment();
+                continue;
+            }
+
+            long elapsed = System.nanoTime() - start;
+            counters.chunks.increment();
+            counters.chunkNanos.add(elapsed);
+            counters.maxChunkNanos.accumulate(elapsed);
+
+            if (completion != null) {
+                completion.accept(result);
+            }
+
+            return elapsed;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkBody<T, R> {
+        R run(List<T> chunk, int offset);
+    }
+
+    /**
+     * 负责 [from, to) 区间的块，不止一块时二分，fork 出去的一半可以被别的线程窃取
+     * 静态内部类，块的计时、重试和计数交给显式传入的 executor
+     */
+    private static final class ChunkTask<T, R> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        // 任务只在本进程的池里执行，从不序列化，引用的对象也不可序列化
+        private final transient ChunkedBatchExecutor executor;
+        private final transient List<List<T>> chunks;
+        private final int baseOffset;
+        private final int chunkSize;
+        private final int from;
+        private final int to;
+        private final transient ChunkBody<T, R> body;
+        private final transient Consumer<? super R> completion;
+
+        ChunkTask(ChunkedBatchExecutor executor, List<List<T>> chunks, int baseOffset, int chunkSize,
+                  int from, int to, ChunkBody<T, R> body, Consumer<? super R> completion) {
+            this.executor = executor;
+            this.chunks = chunks;
+            this.baseOffset = baseOffset;
+            this.chunkSize = chunkSize;
+            this.from = from;
+            this.to = to;
+            this.body = body;
+            this.completion = completion;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                executor.runChunk(chunks.get(from), baseOffset + from * chunkSize, body, completion);
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new ChunkTask<>(executor, chunks, baseOffset, chunkSize, from, mid, body, completion),
+                    new ChunkTask<>(executor, chunks, baseOffset, chunkSize, mid, to, body, completion));
+        }
+    }
+
+    static final class Counters {
+        final LongAdder batches = new LongAdder();
+        final LongAdder elements = new LongAdder();
+        final LongAdder chunks = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder failedChunks = new LongAdder();
+        final LongAdder batchNanos = new LongAdder();
+        final LongAdder chunkNanos = new LongAdder();
+        final LongAccumulator maxChunkNanos = new LongAccumulator(Math::max, 0);
+    }
+
+    public static class Builder {
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+        private int chunkSize;
+        private long targetChunkNanos = TimeUnit.MICROSECONDS.toNanos(200);
+        private int maxRetries = 2;
+
+        private Builder() {
+        }
+
+        /**
+         * 默认为公共池
+         */
+        public Builder pool(ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * 固定块大小，设置之后不再自适应
+         */
+        public Builder chunkSize(int chunkSize) {
+            if (chunkSize <= 0) {
+                throw new IllegalArgumentException("chunkSize must be positive");
+            }
+
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * 自适应时每块的目标耗时，默认 200 微秒
+         */
+        public Builder targetChunkTime(long time, TimeUnit unit) {
+            if (time <= 0) {
+                throw new IllegalArgumentException("targetChunkTime must be positive");
+            }
+
+            this.targetChunkNanos = unit.toNanos(time);
+            return this;
+        }
+
+        /**
+         * 每块失败后的重试次数，默认 2 次，0 表示不重试
+         */
+        public Builder maxRetries(int maxRetries) {
+            if (maxRetries < 0) {
+                throw new IllegalArgumentException("maxRetries must not be negative");
+            }
+
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        public ChunkedBatchExecutor build() {
+            return new ChunkedBatchExecutor(this);
+        }
+    }
+}
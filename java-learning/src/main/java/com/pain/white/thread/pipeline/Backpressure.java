@@ -0,0 +1,22 @@
+package com.pain.white.thread.pipeline;
+
+/**
+ * 积压达到高水位后生产者的处理方式，积压降到低水位以下才恢复正常
+ */
+public enum Backpressure {
+
+    /**
+     * 阻塞生产者，直到积压降到低水位
+     */
+    BLOCK,
+
+    /**
+     * 丢弃最早的元素，为新元素腾出位置，生产者从不阻塞
+     */
+    DROP_OLDEST,
+
+    /**
+     * 直接拒绝新元素，submit 返回 false
+     */
+    FAIL_FAST
+}
@@ -0,0 +1,91 @@
+package com.pain.white.thread.pipeline;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BatchingStage 的统计快照，在锁内一次性读取，各项之间一致
+ */
+public final class BatchStats {
+    private final int backlog;
+    private final long submitted;
+    private final long dropped;
+    private final long rejected;
+    private final long pressureEvents;
+    private final long producerBlockedNanos;
+    private final long batches;
+    private final long consumed;
+    private final int maxBatchSize;
+    private final long consumerWaitNanos;
+
+    BatchStats(int backlog, long submitted, long dropped, long rejected, long pressureEvents, long producerBlockedNanos,
+               long batches, long consumed, int maxBatchSize, long consumerWaitNanos) {
+        this.backlog = backlog;
+        this.submitted = submitted;
+        this.dropped = dropped;
+        this.rejected = rejected;
+        this.pressureEvents = pressureEvents;
+        this.producerBlockedNanos = producerBlockedNanos;
+        this.batches = batches;
+        this.consumed = consumed;
+        this.maxBatchSize = maxBatchSize;
+        this.consumerWaitNanos = consumerWaitNanos;
+    }
+
+    public int getBacklog() {
+        return backlog;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * 积压达到高水位的次数
+     */
+    public long getPressureEvents() {
+        return pressureEvents;
+    }
+
+    public double getProducerBlockedTime(TimeUnit unit) {
+        return (double) producerBlockedNanos / unit.toNanos(1);
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getConsumed() {
+        return consumed;
+    }
+
+    public double getAvgBatchSize() {
+        return batches == 0 ? 0.0 : (double) consumed / batches;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * 消费者每批平均等待的时间，包括等第一个元素和凑满一批的时间
+     */
+    public double getAvgConsumerWait(TimeUnit unit) {
+        return batches == 0 ? 0.0 : (double) consumerWaitNanos / batches / unit.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("backlog: %d, submitted: %d, dropped: %d, rejected: %d, pressure: %d, producer blocked: %.3fms, "
+                        + "batches: %d, consumed: %d, avg batch: %.1f, max batch: %d, avg consumer wait: %.1fus",
+                backlog, submitted, dropped, rejected, pressureEvents, getProducerBlockedTime(TimeUnit.MILLISECONDS),
+                batches, consumed, getAvgBatchSize(), maxBatchSize, getAvgConsumerWait(TimeUnit.MICROSECONDS));
+    }
+}
@@ -0,0 +1,125 @@
+package com.pain.white.thread.pipeline;
+
+import com.pain.white.thread.queue.BoundedQueue;
+import com.pain.white.thread.queue.RingQueues;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多生产者单消费者：逐个 take 与不同批大小的 drainBatch 的吞吐对比，并打印每种配置的统计
+ * 最后用慢消费者分别跑三种背压策略，看丢弃、拒绝和阻塞时间
+ *
+ * 参数：[生产者数] [每个生产者的条数]，默认 4 1000000
+ */
+public class BatchingLoadTest {
+
+    public static void main(String[] args) throws InterruptedException {
+        int producers = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int items = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+
+        perItem(producers, items);
+
+        for (int maxBatch : new int[]{1, 16, 64, 256}) {
+            BatchingStage<Integer> stage = BatchingStage.builder()
+                    .maxBatch(maxBatch)
+                    .maxWait(50, TimeUnit.MICROSECONDS)
+                    .watermarks(4096, 2048)
+                    .backpressure(Backpressure.BLOCK)
+                    .build();
+            batched("batch " + maxBatch, stage, producers, items, 0);
+        }
+
+        for (Backpressure backpressure : Backpressure.values()) {
+            BatchingStage<Integer> stage = BatchingStage.builder()
+                    .maxBatch(64)
+                    .maxWait(50, TimeUnit.MICROSECONDS)
+                    .watermarks(4096, 2048)
+                    .backpressure(backpressure)
+                    .build();
+            // 每批处理 20 微秒，消费者跟不上生产者
+            batched(backpressure.name(), stage, producers, items / 10, 20_000);
+        }
+    }
+
+    private static void perItem(int producers, int items) throws InterruptedException {
+        BoundedQueue<Integer> queue = RingQueues.locking(4096);
+        List<Thread> threads = startProducers(producers, items, queue::put);
+        long total = (long) producers * items;
+        long start = System.nanoTime();
+
+        for (long i = 0; i < total; i++) {
+            queue.take();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        join(threads);
+        System.out.printf("%-12s %8.0f items/ms%n", "per item", total * 1e6 / elapsed);
+    }
+
+    private static void batched(String label, BatchingStage<Integer> stage, int producers, int items, long workNanos)
+            throws InterruptedException {
+        List<Thread> threads = startProducers(producers, items, stage::submit);
+        List<Integer> batch = new ArrayList<>();
+        long start = System.nanoTime();
+
+        // 生产者结束且积压清空后退出
+        while (stage.drainBatch(batch, 10, TimeUnit.MILLISECONDS) > 0 || isAlive(threads)) {
+            batch.clear();
+
+            if (workNanos > 0) {
+                long until = System.nanoTime() + workNanos;
+
+                while (System.nanoTime() < until) {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        join(threads);
+        BatchStats stats = stage.stats();
+        System.out.printf("%-12s %8.0f items/ms  %s%n", label, stats.getConsumed() * 1e6 / elapsed, stats);
+    }
+
+    interface Producer {
+        void submit(Integer item) throws InterruptedException;
+    }
+
+    private static List<Thread> startProducers(int producers, int items, Producer producer) {
+        List<Thread> threads = new ArrayList<>();
+
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 0; i < items; i++) {
+                        producer.submit(i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "producer-" + p);
+            thread.start();
+            threads.add(thread);
+        }
+
+        return threads;
+    }
+
+    private static boolean isAlive(List<Thread> threads) {
+        for (Thread thread : threads) {
+            if (thread.isAlive()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static void join(List<Thread> threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.pain.white.thread.pipeline;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 批量消费的流水线阶段：消费者一次取走最多 maxBatch 个元素，不够时最多再等 maxWait，两者先到为准
+ * 每批只加一次锁、唤醒一次生产者，摊薄逐个 take 时每个元素的加锁和通知开销
+ *
+ * 积压达到高水位时按 Backpressure 处理生产者，降到低水位以下才解除，避免在一个阈值附近来回切换
+ * 所有状态都在同一把 ReentrantLock 下修改，阻塞时不会钉住虚拟线程
+ */
+public class BatchingStage<T> {
+    private final Object[] items;
+    private final int lowWatermark;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final Backpressure backpressure;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // 等第一个元素
+    private final Condition notEmpty = lock.newCondition();
+    // 已有元素，等凑满一批
+    private final Condition batchReady = lock.newCondition();
+    private final Condition notPressured = lock.newCondition();
+
+    private int head;
+    private int tail;
+    private int count;
+    private boolean pressured;
+
+    // 统计，都在锁内更新
+    private long submitted;
+    private long dropped;
+    private long rejected;
+    private long pressureEvents;
+    private long producerBlockedNanos;
+    private long batches;
+    private long consumed;
+    private int maxBatchSize;
+    private long consumerWaitNanos;
+
+    private BatchingStage(Builder builder) {
+        this.items = new Object[builder.highWatermark];
+        this.lowWatermark = builder.lowWatermark;
+        this.maxBatch = builder.maxBatch;
+        this.maxWaitNanos = builder.maxWaitNanos;
+        this.backpressure = builder.backpressure;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return 元素是否被接收；只有 FAIL_FAST 会返回 false
+     * @throws InterruptedException BLOCK 模式下等待时被中断
+     */
+    public boolean submit(T item) throws InterruptedException {
+        if (item == null) {
+            throw new NullPointerException();
+        }
+
+        lock.lockInterruptibly();
+
+        try {
+            if (pressured) {
+                switch (backpressure) {
+                    case BLOCK:
+                        long start = System.nanoTime();
+
+                        try {
+                            while (pressured) {
+                                notPressured.await();
+                            }
+                        } finally {
+                            producerBlockedNanos += System.nanoTime() - start;
+                        }
+
+                        break;
+                    case DROP_OLDEST:
+                        if (count == items.length) {
+                            dequeue();
+                            dropped++;
+                        }
+
+                        break;
+                    case FAIL_FAST:
+                        rejected++;
+                        return false;
+                    default:
+                        throw new IllegalStateException("unknown backpressure: " + backpressure);
+                }
+            }
+
+            enqueue(item);
+            submitted++;
+
+            if (!pressured && count == items.length) {
+                pressured = true;
+                pressureEvents++;
+            }
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 一直等到有元素，再最多等 maxWait 凑满一批
+     *
+     * @return 取出的个数，至少为 1
+     */
+    public int drainBatch(Collection<? super T> target) throws InterruptedException {
+        return drainBatch(target, -1);
+    }
+
+    /**
+     * 最多等 timeout 直到有元素，之后与 drainBatch(target) 相同
+     *
+     * @return 取出的个数，超时返回 0
+     */
+    public int drainBatch(Collection<? super T> target, long timeout, TimeUnit unit) throws InterruptedException {
+        return drainBatch(target, Math.max(0, unit.toNanos(timeout)));
+    }
+
+    private int drainBatch(Collection<? super T> target, long firstTimeoutNanos) throws InterruptedException {
+        lock.lockInterruptibly();
+
+        try {
+            long start = System.nanoTime();
+
+            if (firstTimeoutNanos < 0) {
+                while (count == 0) {
+                    notEmpty.await();
+                }
+            } else {
+                long remaining = firstTimeoutNanos;
+
+                while (count == 0) {
+                    if (remaining <= 0) {
+                        return 0;
+                    }
+
+                    remaining = notEmpty.awaitNanos(remaining);
+                }
+            }
+
+            long remaining = maxWaitNanos;
+
+            while (count < maxBatch && remaining > 0) {
+                remaining = batchReady.awaitNanos(remaining);
+            }
+
+            int n = Math.min(count, maxBatch);
+
+            for (int i = 0; i < n; i++) {
+                target.add(dequeue());
+            }
+
+            batches++;
+            consumed += n;
+            maxBatchSize = Math.max(maxBatchSize, n);
+            consumerWaitNanos += System.nanoTime() - start;
+
+            // 还有剩余时交给下一个等待的消费者
+            if (count > 0) {
+                notEmpty.signal();
+            }
+
+            if (pressured && count <= lowWatermark) {
+                pressured = false;
+                notPressured.signalAll();
+            }
+
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public BatchStats stats() {
+        lock.lock();
+
+        try {
+            return new BatchStats(count, submitted, dropped, rejected, pressureEvents, producerBlockedNanos,
+                    batches, consumed, maxBatchSize, consumerWaitNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(T item) {
+        items[tail] = item;
+        tail = tail + 1 == items.length ? 0 : tail + 1;
+        count++;
+
+        if (count == 1) {
+            notEmpty.signal();
+        }
+
+        if (count == maxBatch) {
+            batchReady.signal();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T dequeue() {
+        T item = (T) items[head];
+        items[head] = null;
+        head = head + 1 == items.length ? 0 : head + 1;
+        count--;
+        return item;
+    }
+
+    public static class Builder {
+        private int maxBatch = 64;
+        private long maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(100);
+        private int highWatermark = 1024;
+        private int lowWatermark = 512;
+        private Backpressure backpressure = Backpressure.BLOCK;
+
+        private Builder() {}
+
+        /**
+         * 不能超过 highWatermark，否则队列永远攒不满一批，每次 drainBatch 都要等满 maxWait
+         */
+        public Builder maxBatch(int maxBatch) {
+            if (maxBatch <= 0) {
+                throw new IllegalArgumentException("maxBatch must be positive");
+            }
+
+            this.maxBatch = maxBatch;
+            return this;
+        }
+
+        /**
+         * 为 0 时有多少取多少，不等待
+         */
+        public Builder maxWait(long maxWait, TimeUnit unit) {
+            if (maxWait < 0) {
+                throw new IllegalArgumentException("maxWait must not be negative");
+            }
+
+            this.maxWaitNanos = unit.toNanos(maxWait);
+            return this;
+        }
+
+        /**
+         * highWatermark 同时也是容量
+         */
+        public Builder watermarks(int highWatermark, int lowWatermark) {
+            if (highWatermark <= 0 || lowWatermark < 0 || lowWatermark >= highWatermark) {
+                throw new IllegalArgumentException("require 0 <= lowWatermark < highWatermark");
+            }
+
+            this.highWatermark = highWatermark;
+            this.lowWatermark = lowWatermark;
+            return this;
+        }
+
+        public Builder backpressure(Backpressure backpressure) {
+            this.backpressure = backpressure;
+            return this;
+        }
+
+        public <T> BatchingStage<T> build() {
+            if (maxBatch > highWatermark) {
+                throw new IllegalStateException("maxBatch " + maxBatch + " exceeds highWatermark " + highWatermark);
+            }
+
+            return new BatchingStage<>(this);
+        }
+    }
+}
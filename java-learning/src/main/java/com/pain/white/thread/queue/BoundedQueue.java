@@ -0,0 +1,37 @@
+package com.pain.white.thread.queue;
+
+import java.util.Collection;
+
+public interface BoundedQueue<T> {
+
+    /**
+     * 队列满时按等待策略等待，可被中断
+     */
+    void put(T data) throws InterruptedException;
+
+    /**
+     * 队列空时按等待策略等待，可被中断
+     */
+    T take() throws InterruptedException;
+
+    boolean offer(T data);
+
+    /**
+     * 队列为空返回 null
+     */
+    T poll();
+
+    /**
+     * 最多取出 maxElements 个元素放入 target，返回实际个数
+     */
+    int drainTo(Collection<? super T> target, int maxElements);
+
+    /**
+     * 按顺序放入尽可能多的元素，返回实际放入的个数
+     */
+    int offerAll(Collection<? extends T> data);
+
+    int size();
+
+    int capacity();
+}
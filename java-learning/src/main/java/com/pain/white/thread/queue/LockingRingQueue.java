@@ -0,0 +1,167 @@
+package com.pain.white.thread.queue;
+
+import java.util.Collection;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 一把锁加 notFull/notEmpty 两个条件的有界环形队列，与 ArrayBlockingQueue 的结构相同
+ * 阻塞时虚拟线程从载体线程上卸载，等待的线程数不受载体线程数限制
+ */
+class LockingRingQueue<T> implements BoundedQueue<T> {
+    private final Object[] items;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private int head;
+    private int tail;
+    private int count;
+
+    LockingRingQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+
+        items = new Object[capacity];
+    }
+
+    @Override
+    public void put(T data) throws InterruptedException {
+        checkNotNull(data);
+        lock.lockInterruptibly();
+
+        try {
+            while (count == items.length) {
+                notFull.await();
+            }
+
+            enqueue(data);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        lock.lockInterruptibly();
+
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offer(T data) {
+        checkNotNull(data);
+        lock.lock();
+
+        try {
+            if (count == items.length) {
+                return false;
+            }
+
+            enqueue(data);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T poll() {
+        lock.lock();
+
+        try {
+            return count == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> target, int maxElements) {
+        lock.lock();
+
+        try {
+            int n = Math.min(count, maxElements);
+
+            for (int i = 0; i < n; i++) {
+                target.add(dequeue());
+            }
+
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int offerAll(Collection<? extends T> data) {
+        lock.lock();
+
+        try {
+            int n = 0;
+
+            for (T element : data) {
+                checkNotNull(element);
+
+                if (count == items.length) {
+                    break;
+                }
+
+                enqueue(element);
+                n++;
+            }
+
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int capacity() {
+        return items.length;
+    }
+
+    private void enqueue(T data) {
+        items[tail] = data;
+        tail = tail + 1 == items.length ? 0 : tail + 1;
+        count++;
+        notEmpty.signal();
+    }
+
+    @SuppressWarnings("unchecked")
+    private T dequeue() {
+        T data = (T) items[head];
+        items[head] = null;
+        head = head + 1 == items.length ? 0 : head + 1;
+        count--;
+        notFull.signal();
+        return data;
+    }
+
+    private static void checkNotNull(Object data) {
+        if (data == null) {
+            throw new NullPointerException();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.pain.white.thread.queue;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 多生产者多消费者环形队列（Vyukov 算法）
+ * 每个槽位带一个序号：等于 pos 表示可写，等于 pos + 1 表示可读，
+ * 生产者和消费者分别 CAS tail/head 抢占位置，槽位序号负责把元素安全地发布给对方
+ */
+class MpmcRingQueue<T> implements BoundedQueue<T> {
+    private final Object[] buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+
+    private final Sequence head = new Sequence();
+    private final Sequence tail = new Sequence();
+
+    MpmcRingQueue(int capacity, WaitStrategy waitStrategy) {
+        int size = RingQueues.ceilingPowerOfTwo(capacity);
+        this.buffer = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.waitStrategy = waitStrategy;
+
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    @Override
+    public void put(T data) throws InterruptedException {
+        int attempt = 0;
+
+        while (!offer(data)) {
+            waitStrategy.await(attempt++);
+        }
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        int attempt = 0;
+        T data;
+
+        while ((data = poll()) == null) {
+            waitStrategy.await(attempt++);
+        }
+
+        return data;
+    }
+
+    @Override
+    public boolean offer(T data) {
+        if (data == null) {
+            throw new NullPointerException();
+        }
+
+        while (true) {
+            long pos = tail.get();
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - pos;
+
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    buffer[index] = data;
+                    sequences.lazySet(index, pos + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                // 槽位还没被消费，队列满
+                return false;
+            }
+
+            // diff > 0：其他生产者已经抢到该位置，重读 tail
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        while (true) {
+            long pos = head.get();
+            int index = (int) pos & mask;
+            long diff = sequences.get(index) - (pos + 1);
+
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    T data = (T) buffer[index];
+                    buffer[index] = null;
+                    sequences.lazySet(index, pos + mask + 1);
+                    return data;
+                }
+            } else if (diff < 0) {
+                // 槽位还没写入，队列空
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> target, int maxElements) {
+        int n = 0;
+        T data;
+
+        while (n < maxElements && (data = poll()) != null) {
+            target.add(data);
+            n++;
+        }
+
+        return n;
+    }
+
+    @Override
+    public int offerAll(Collection<? extends T> data) {
+        int n = 0;
+
+        for (T item : data) {
+            if (!offer(item)) {
+                break;
+            }
+
+            n++;
+        }
+
+        return n;
+    }
+
+    @Override
+    public int size() {
+        while (true) {
+            long h = head.get();
+            long t = tail.get();
+
+            if (h == head.get()) {
+                return (int) Math.max(0, Math.min(t - h, buffer.length));
+            }
+        }
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.length;
+    }
+}
@@ -0,0 +1,40 @@
+package com.pain.white.thread.queue;
+
+public class RingQueues {
+
+    private RingQueues() {}
+
+    /**
+     * 单生产者单消费者，容量精确
+     */
+    public static <T> BoundedQueue<T> spsc(int capacity, WaitStrategy waitStrategy) {
+        return new SpscRingQueue<>(capacity, waitStrategy);
+    }
+
+    /**
+     * 多生产者多消费者，容量向上取整到 2 的幂
+     */
+    public static <T> BoundedQueue<T> mpmc(int capacity, WaitStrategy waitStrategy) {
+        return new MpmcRingQueue<>(capacity, waitStrategy);
+    }
+
+    /**
+     * 多生产者多消费者，用 ReentrantLock/Condition 阻塞，不会像 synchronized 那样钉住虚拟线程的载体线程
+     * 适合生产者、消费者远多于 CPU 核数、大部分时间都在阻塞的场景
+     */
+    public static <T> BoundedQueue<T> locking(int capacity) {
+        return new LockingRingQueue<>(capacity);
+    }
+
+    static int ceilingPowerOfTwo(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+
+        if (capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity too large: " + capacity);
+        }
+
+        return capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    }
+}
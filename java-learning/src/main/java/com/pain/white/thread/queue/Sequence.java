@@ -0,0 +1,42 @@
+package com.pain.white.thread.queue;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * 前后各填充 56 字节，避免 head/tail 落在同一缓存行上产生伪共享
+ */
+class LhsPadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+class Value extends LhsPadding {
+    protected volatile long value;
+}
+
+class RhsPadding extends Value {
+    protected long p9, p10, p11, p12, p13, p14, p15;
+}
+
+final class Sequence extends RhsPadding {
+    private static final AtomicLongFieldUpdater<Value> UPDATER =
+            AtomicLongFieldUpdater.newUpdater(Value.class, "value");
+
+    long get() {
+        return value;
+    }
+
+    void set(long newValue) {
+        value = newValue;
+    }
+
+    /**
+     * 只保证 StoreStore 顺序，单写者场景下发布用
+     */
+    void lazySet(long newValue) {
+        UPDATER.lazySet(this, newValue);
+    }
+
+    boolean compareAndSet(long expect, long update) {
+        return UPDATER.compareAndSet(this, expect, update);
+    }
+}
@@ -0,0 +1,153 @@
+package com.pain.white.thread.queue;
+
+import java.util.Collection;
+
+/**
+ * 单生产者单消费者环形队列
+ * tail 只由生产者写，head 只由消费者写，用 lazySet 发布，不需要 CAS
+ * 双方各自缓存对方的序号，只有看起来满/空时才去读对方的 volatile 变量
+ */
+class SpscRingQueue<T> implements BoundedQueue<T> {
+    private final Object[] buffer;
+    private final int mask;
+    private final int capacity;
+    private final WaitStrategy waitStrategy;
+
+    private final Sequence head = new Sequence();
+    private final Sequence tail = new Sequence();
+
+    // 生产者私有
+    private long headCache;
+
+    // 消费者私有
+    private long tailCache;
+
+    SpscRingQueue(int capacity, WaitStrategy waitStrategy) {
+        int size = RingQueues.ceilingPowerOfTwo(capacity);
+        this.buffer = new Object[size];
+        this.mask = size - 1;
+        this.capacity = capacity;
+        this.waitStrategy = waitStrategy;
+    }
+
+    @Override
+    public void put(T data) throws InterruptedException {
+        int attempt = 0;
+
+        while (!offer(data)) {
+            waitStrategy.await(attempt++);
+        }
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        int attempt = 0;
+        T data;
+
+        while ((data = poll()) == null) {
+            waitStrategy.await(attempt++);
+        }
+
+        return data;
+    }
+
+    @Override
+    public boolean offer(T data) {
+        if (data == null) {
+            throw new NullPointerException();
+        }
+
+        long t = tail.get();
+
+        if (t - headCache >= capacity) {
+            headCache = head.get();
+
+            if (t - headCache >= capacity) {
+                return false;
+            }
+        }
+
+        buffer[(int) t & mask] = data;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long h = head.get();
+
+        if (h >= tailCache) {
+            tailCache = tail.get();
+
+            if (h >= tailCache) {
+                return null;
+            }
+        }
+
+        int index = (int) h & mask;
+        T data = (T) buffer[index];
+        buffer[index] = null;
+        head.lazySet(h + 1);
+        return data;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int drainTo(Collection<? super T> target, int maxElements) {
+        long h = head.get();
+        long available = tail.get() - h;
+        int n = (int) Math.min(available, maxElements);
+
+        for (int i = 0; i < n; i++) {
+            int index = (int) (h + i) & mask;
+            target.add((T) buffer[index]);
+            buffer[index] = null;
+        }
+
+        if (n > 0) {
+            // 整批只发布一次
+            head.lazySet(h + n);
+        }
+
+        return Math.max(n, 0);
+    }
+
+    @Override
+    public int offerAll(Collection<? extends T> data) {
+        long t = tail.get();
+        long free = capacity - (t - head.get());
+        int n = 0;
+
+        for (T item : data) {
+            if (n >= free) {
+                break;
+            }
+
+            if (item == null) {
+                throw new NullPointerException();
+            }
+
+            buffer[(int) (t + n) & mask] = item;
+            n++;
+        }
+
+        if (n > 0) {
+            tail.lazySet(t + n);
+        }
+
+        return n;
+    }
+
+    @Override
+    public int size() {
+        long h = head.get();
+        long t = tail.get();
+        return (int) Math.max(0, Math.min(t - h, capacity));
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+}
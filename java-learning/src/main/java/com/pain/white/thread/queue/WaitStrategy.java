@@ -0,0 +1,60 @@
+package com.pain.white.thread.queue;
+
+import java.util.concurrent.locks.LockSupport;
+
+public enum WaitStrategy {
+
+    /**
+     * 忙等，延迟最低，独占一个核
+     */
+    SPIN {
+        @Override
+        void idle(int attempt) {
+            Thread.onSpinWait();
+        }
+    },
+
+    /**
+     * 让出 CPU，适合线程数不超过核数的场景
+     */
+    YIELD {
+        @Override
+        void idle(int attempt) {
+            Thread.yield();
+        }
+    },
+
+    /**
+     * 先自旋再 yield，最后逐步加大 park 时长，适合大部分时间空闲的场景
+     */
+    PARK {
+        private static final int SPINS = 100;
+        private static final int YIELDS = 200;
+        private static final long MAX_PARK_NANOS = 1000_000;
+
+        @Override
+        void idle(int attempt) {
+            if (attempt < SPINS) {
+                Thread.onSpinWait();
+                return;
+            }
+
+            if (attempt < YIELDS) {
+                Thread.yield();
+                return;
+            }
+
+            LockSupport.parkNanos(Math.min(1000L << Math.min(attempt - YIELDS, 10), MAX_PARK_NANOS));
+        }
+    };
+
+    abstract void idle(int attempt);
+
+    void await(int attempt) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+
+        idle(attempt);
+    }
+}
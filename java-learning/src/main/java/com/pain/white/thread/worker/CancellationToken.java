@@ -0,0 +1,64 @@
+package com.pain.white.thread.worker;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 协作式取消：任务在循环中检查 isCancelled，或者调用 throwIfCancelled 退出
+ * WorkerRuntime 执行的任务被取消时，阻塞在 sleep/wait/take 上的工作线程还会被中断
+ */
+public class CancellationToken {
+    private final CopyOnWriteArrayList<Runnable> callbacks = new CopyOnWriteArrayList<>();
+    private volatile boolean cancelled;
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException();
+        }
+    }
+
+    /**
+     * 只有第一次调用会执行回调
+     */
+    public void cancel() {
+        if (markCancelled()) {
+            runCallbacks();
+        }
+    }
+
+    /**
+     * 只设置标记，返回是否是第一次取消；之后需要调用 runCallbacks
+     */
+    synchronized boolean markCancelled() {
+        if (cancelled) {
+            return false;
+        }
+
+        cancelled = true;
+        return true;
+    }
+
+    void runCallbacks() {
+        // 与 onCancel 竞争时，谁先从列表中移除回调谁执行，保证只执行一次
+        for (Runnable callback : callbacks) {
+            if (callbacks.remove(callback)) {
+                callback.run();
+            }
+        }
+    }
+
+    /**
+     * 已经取消时立即执行
+     */
+    public void onCancel(Runnable callback) {
+        callbacks.add(callback);
+
+        if (cancelled && callbacks.remove(callback)) {
+            callback.run();
+        }
+    }
+}
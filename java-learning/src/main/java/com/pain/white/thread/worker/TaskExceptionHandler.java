@@ -0,0 +1,11 @@
+package com.pain.white.thread.worker;
+
+/**
+ * 任务抛出异常时回调，代替全局的 Thread.setDefaultUncaughtExceptionHandler
+ * 在执行任务的工作线程中调用；任务被取消之后抛出的异常不会回调
+ */
+@FunctionalInterface
+public interface TaskExceptionHandler {
+
+    void handle(TaskHandle task, Throwable e);
+}
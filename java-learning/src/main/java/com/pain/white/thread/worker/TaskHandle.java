@@ -0,0 +1,100 @@
+package com.pain.white.thread.worker;
+
+import java.util.concurrent.FutureTask;
+import java.util.logging.Level;
+
+/**
+ * 提交任务后得到的句柄：可以等待结果、取消，也可以拿到任务的取消令牌
+ * 取消句柄或令牌都会：令牌标记为已取消；任务正在运行时中断工作线程；还在队列中时直接移出队列
+ */
+public final class TaskHandle extends FutureTask<Void> {
+    private final String name;
+    private final CancellationToken token;
+    private final TaskExceptionHandler exceptionHandler;
+    private final WorkerRuntime runtime;
+
+    final long submittedNanos = System.nanoTime();
+    long startedNanos;
+
+    TaskHandle(String name, WorkerTask task, CancellationToken token, TaskExceptionHandler exceptionHandler, WorkerRuntime runtime) {
+        super(() -> {
+            task.run(token);
+            return null;
+        });
+        this.name = name;
+        this.token = token;
+        this.exceptionHandler = exceptionHandler;
+        this.runtime = runtime;
+
+        // 直接取消 token 与取消句柄效果相同；通过句柄取消时任务已经结束，这里什么也不做
+        token.onCancel(() -> cancelTask(true));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CancellationToken token() {
+        return token;
+    }
+
+    /**
+     * 先标记令牌，再取消任务，任务被中断时一定能看到令牌已取消；最后执行令牌上的其他回调
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean first = token.markCancelled();
+        boolean cancelled = cancelTask(mayInterruptIfRunning);
+
+        if (first) {
+            token.runCallbacks();
+        }
+
+        return cancelled;
+    }
+
+    private boolean cancelTask(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+
+        if (cancelled) {
+            runtime.counters.cancelled.increment();
+            runtime.remove(this);
+        }
+
+        return cancelled;
+    }
+
+    @Override
+    protected void setException(Throwable e) {
+        super.setException(e);
+
+        // 已经通过 cancel 取消的任务，FutureTask 会忽略之后的结果
+        if (isCancelled()) {
+            return;
+        }
+
+        runtime.counters.failed.increment();
+
+        try {
+            exceptionHandler.handle(this, e);
+        } catch (RuntimeException handlerError) {
+            // 处理器自身的异常不能让工作线程退出
+            handlerError.addSuppressed(e);
+            WorkerRuntime.LOGGER.log(Level.WARNING, "exception handler failed: " + name, handlerError);
+        }
+    }
+
+    @Override
+    protected void set(Void v) {
+        super.set(v);
+
+        if (!isCancelled()) {
+            runtime.counters.completed.increment();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
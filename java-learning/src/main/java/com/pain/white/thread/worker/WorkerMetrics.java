@@ -0,0 +1,107 @@
+package com.pain.white.thread.worker;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WorkerRuntime 某一时刻的指标快照，各项分别读取，彼此之间不保证严格一致
+ */
+public final class WorkerMetrics {
+    private final int queueDepth;
+    private final int activeWorkers;
+    private final int poolSize;
+    private final long submitted;
+    private final long rejected;
+    private final long completed;
+    private final long failed;
+    private final long cancelled;
+    private final long started;
+    private final long finished;
+    private final long totalQueueNanos;
+    private final long totalRunNanos;
+    private final long maxRunNanos;
+
+    WorkerMetrics(int queueDepth, int activeWorkers, int poolSize, long submitted, long rejected, long completed,
+                  long failed, long cancelled, long started, long finished,
+                  long totalQueueNanos, long totalRunNanos, long maxRunNanos) {
+        this.queueDepth = queueDepth;
+        this.activeWorkers = activeWorkers;
+        this.poolSize = poolSize;
+        this.submitted = submitted;
+        this.rejected = rejected;
+        this.completed = completed;
+        this.failed = failed;
+        this.cancelled = cancelled;
+        this.started = started;
+        this.finished = finished;
+        this.totalQueueNanos = totalQueueNanos;
+        this.totalRunNanos = totalRunNanos;
+        this.maxRunNanos = maxRunNanos;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getActiveWorkers() {
+        return activeWorkers;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getCancelled() {
+        return cancelled;
+    }
+
+    public long getStarted() {
+        return started;
+    }
+
+    public long getFinished() {
+        return finished;
+    }
+
+    /**
+     * 已开始执行的任务在队列中的平均等待时间
+     */
+    public double getAvgQueueTime(TimeUnit unit) {
+        return started == 0 ? 0.0 : (double) totalQueueNanos / started / unit.toNanos(1);
+    }
+
+    /**
+     * 已结束的任务的平均执行时间
+     */
+    public double getAvgRunTime(TimeUnit unit) {
+        return finished == 0 ? 0.0 : (double) totalRunNanos / finished / unit.toNanos(1);
+    }
+
+    public double getMaxRunTime(TimeUnit unit) {
+        return (double) maxRunNanos / unit.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("queue: %d, active: %d/%d, submitted: %d, rejected: %d, completed: %d, failed: %d, "
+                        + "cancelled: %d, avg queue: %.3fms, avg run: %.3fms, max run: %.3fms",
+                queueDepth, activeWorkers, poolSize, submitted, rejected, completed, failed, cancelled,
+                getAvgQueueTime(TimeUnit.MILLISECONDS), getAvgRunTime(TimeUnit.MILLISECONDS),
+                getMaxRunTime(TimeUnit.MILLISECONDS));
+    }
+}
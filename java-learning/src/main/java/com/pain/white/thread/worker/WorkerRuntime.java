@@ -0,0 +1,379 @@
+package com.pain.white.thread.worker;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 托管的工作线程池，代替每个任务 new Thread、sleep 之后 interrupt 的写法
+ *
+ * 1. 线程数和队列长度都有上限，线程复用，队列满时 submit 抛出 RejectedExecutionException
+ * 2. 每个任务带一个 CancellationToken，取消时先通知任务，阻塞中的任务再被中断
+ * 3. shutdown 在截止时间之前等待任务自然结束，超时后取消剩余的任务
+ * 4. 任务的异常交给提交时指定的 TaskExceptionHandler，默认记录到一个共享的 Logger
+ * 5. 提供队列深度、活跃线程数、排队和执行耗时等指标
+ *
+ * 虚拟线程模式下每个任务一个虚拟线程（虚拟线程很廉价，不应该池化），
+ * workers 限制同时执行的任务数，queueCapacity 限制等待执行的任务数
+ */
+public class WorkerRuntime {
+    static final Logger LOGGER = Logger.getLogger(WorkerRuntime.class.getName());
+
+    private static final TaskExceptionHandler LOG_EXCEPTION = (task, e) ->
+            LOGGER.log(Level.WARNING, "task " + task.getName() + " failed", e);
+
+    private static final Thread.UncaughtExceptionHandler LOG_WORKER_DEATH = (worker, e) ->
+            LOGGER.log(Level.SEVERE, "worker " + worker.getName() + " died", e);
+
+    private final String name;
+    private final TaskExceptionHandler defaultExceptionHandler;
+    private final ExecutorService executor;
+    private final Set<TaskHandle> running = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger taskIds = new AtomicInteger();
+    private volatile boolean forced;
+
+    // 平台线程模式
+    private final ThreadPoolExecutor pool;
+    private final ArrayBlockingQueue<Runnable> queue;
+
+    // 虚拟线程模式：admission 限制已提交未结束的任务数，concurrency 限制同时执行的任务数
+    private final Semaphore admission;
+    private final Semaphore concurrency;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    final Counters counters = new Counters();
+
+    private WorkerRuntime(Builder builder) {
+        this.name = builder.name;
+        this.defaultExceptionHandler = builder.exceptionHandler;
+
+        if (builder.virtual) {
+            int workers = builder.workers > 0 ? builder.workers : Integer.MAX_VALUE;
+            ThreadFactory factory = Thread.ofVirtual()
+                    .name(builder.name + "-virtual-", 1)
+                    .uncaughtExceptionHandler(LOG_WORKER_DEATH)
+                    .factory();
+            this.pool = null;
+            this.queue = null;
+            this.executor = Executors.newThreadPerTaskExecutor(factory);
+            this.concurrency = new Semaphore(workers);
+            this.admission = new Semaphore((int) Math.min(Integer.MAX_VALUE, (long) workers + builder.queueCapacity));
+        } else {
+            int workers = builder.workers > 0 ? builder.workers : Runtime.getRuntime().availableProcessors();
+            this.queue = new ArrayBlockingQueue<>(builder.queueCapacity);
+            this.pool = new Executor(workers, queue, new WorkerThreadFactory(builder.name, builder.daemon));
+            this.executor = pool;
+            this.concurrency = null;
+            this.admission = null;
+        }
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    public TaskHandle submit(WorkerTask task) {
+        return submit(name + "-task-" + taskIds.incrementAndGet(), task, defaultExceptionHandler);
+    }
+
+    public TaskHandle submit(String taskName, WorkerTask task) {
+        return submit(taskName, task, defaultExceptionHandler);
+    }
+
+    /**
+     * @throws RejectedExecutionException 队列已满或者已经关闭
+     */
+    public TaskHandle submit(String taskName, WorkerTask task, TaskExceptionHandler exceptionHandler) {
+        TaskHandle handle = new TaskHandle(taskName, task, new CancellationToken(), exceptionHandler, this);
+
+        try {
+            if (pool != null) {
+                pool.execute(handle);
+            } else {
+                startVirtual(handle);
+            }
+        } catch (RejectedExecutionException e) {
+            counters.rejected.increment();
+            throw e;
+        }
+
+        counters.submitted.increment();
+        return handle;
+    }
+
+    /**
+     * 不再接受新任务，在 timeout 内等待已提交的任务结束；超时后取消所有剩余任务（包括还在排队的）
+     *
+     * @return 所有任务是否在截止时间之前结束
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        executor.shutdown();
+
+        if (executor.awaitTermination(timeout, unit)) {
+            return true;
+        }
+
+        cancelAll();
+        return false;
+    }
+
+    /**
+     * 立即取消所有任务，不等待
+     */
+    public void shutdownNow() {
+        executor.shutdown();
+        cancelAll();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    public boolean isVirtual() {
+        return pool == null;
+    }
+
+    /**
+     * 虚拟线程模式下 poolSize 是还没结束的虚拟线程数
+     */
+    public WorkerMetrics metrics() {
+        int queueDepth = pool != null ? queue.size() : waiting.get();
+        int poolSize = pool != null ? pool.getPoolSize() : running.size() + waiting.get();
+
+        return new WorkerMetrics(
+                queueDepth,
+                running.size(),
+                poolSize,
+                counters.submitted.sum(),
+                counters.rejected.sum(),
+                counters.completed.sum(),
+                counters.failed.sum(),
+                counters.cancelled.sum(),
+                counters.started.sum(),
+                counters.finished.sum(),
+                counters.queueNanos.sum(),
+                counters.runNanos.sum(),
+                counters.maxRunNanos.get());
+    }
+
+    void remove(TaskHandle handle) {
+        // 虚拟线程模式下，已取消的任务在拿到执行许可后直接退出
+        if (pool != null) {
+            pool.remove(handle);
+        }
+    }
+
+    private void startVirtual(TaskHandle handle) {
+        if (!admission.tryAcquire()) {
+            throw new RejectedExecutionException("too many pending tasks in " + name);
+        }
+
+        waiting.incrementAndGet();
+
+        try {
+            executor.execute(() -> runVirtual(handle));
+        } catch (RejectedExecutionException e) {
+            waiting.decrementAndGet();
+            admission.release();
+            throw e;
+        }
+    }
+
+    private void runVirtual(TaskHandle handle) {
+        try {
+            concurrency.acquire();
+        } catch (InterruptedException e) {
+            // 强制关闭时，还在等待执行许可的虚拟线程被中断
+            waiting.decrementAndGet();
+            admission.release();
+            handle.cancel(false);
+            return;
+        }
+
+        waiting.decrementAndGet();
+
+        try {
+            if (!handle.isDone()) {
+                beforeRun(handle);
+
+                try {
+                    handle.run();
+                } finally {
+                    afterRun(handle);
+                }
+            }
+        } finally {
+            concurrency.release();
+            admission.release();
+        }
+    }
+
+    /**
+     * 先登记再检查 forced，与 cancelAll 的先设置 forced 再遍历 running 相对应：
+     * 两边都是 volatile 写后读，刚开始执行的任务要么被 cancelAll 取消，要么自己看到 forced
+     */
+    private void beforeRun(TaskHandle handle) {
+        handle.startedNanos = System.nanoTime();
+        running.add(handle);
+        counters.started.increment();
+        counters.queueNanos.add(handle.startedNanos - handle.submittedNanos);
+
+        // 已经强制关闭，取消后 FutureTask.run 不会执行任务
+        if (forced) {
+            handle.cancel(false);
+        }
+    }
+
+    private void afterRun(TaskHandle handle) {
+        long elapsed = System.nanoTime() - handle.startedNanos;
+        running.remove(handle);
+        counters.finished.increment();
+        counters.runNanos.add(elapsed);
+        counters.maxRunNanos.accumulate(elapsed);
+
+        // 任务被取消时 FutureTask 可能留下中断状态，不能带到下一个任务
+        Thread.interrupted();
+    }
+
+    private void cancelAll() {
+        forced = true;
+
+        for (TaskHandle handle : running) {
+            handle.cancel(true);
+        }
+
+        // 平台线程模式返回还在队列中的任务；虚拟线程模式返回空列表，等待中的虚拟线程被中断后自己取消
+        for (Runnable runnable : executor.shutdownNow()) {
+            ((TaskHandle) runnable).cancel(false);
+        }
+    }
+
+    static final class Counters {
+        final LongAdder submitted = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder cancelled = new LongAdder();
+        final LongAdder started = new LongAdder();
+        final LongAdder finished = new LongAdder();
+        final LongAdder queueNanos = new LongAdder();
+        final LongAdder runNanos = new LongAdder();
+        final LongAccumulator maxRunNanos = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * 在任务开始和结束时记录指标，并登记正在运行的任务，以便超时后取消
+     */
+    private final class Executor extends ThreadPoolExecutor {
+
+        Executor(int workers, ArrayBlockingQueue<Runnable> queue, ThreadFactory threadFactory) {
+            super(workers, workers, 0L, TimeUnit.MILLISECONDS, queue, threadFactory);
+        }
+
+        @Override
+        protected void beforeExecute(Thread t, Runnable r) {
+            beforeRun((TaskHandle) r);
+        }
+
+        @Override
+        protected void afterExecute(Runnable r, Throwable t) {
+            afterRun((TaskHandle) r);
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final boolean daemon;
+        private final AtomicInteger threadIds = new AtomicInteger();
+
+        WorkerThreadFactory(String name, boolean daemon) {
+            this.prefix = name + "-worker-";
+            this.daemon = daemon;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, prefix + threadIds.incrementAndGet());
+            thread.setDaemon(daemon);
+            // 任务的异常都由 TaskHandle 处理，能走到这里的只有运行时本身的错误
+            thread.setUncaughtExceptionHandler(LOG_WORKER_DEATH);
+            return thread;
+        }
+    }
+
+    public static class Builder {
+        private final String name;
+        private int workers;
+        private int queueCapacity = 1024;
+        private boolean daemon;
+        private boolean virtual;
+        private TaskExceptionHandler exceptionHandler = LOG_EXCEPTION;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * 平台线程模式下默认为 CPU 核数；虚拟线程模式下默认不限制
+         */
+        public Builder workers(int workers) {
+            if (workers <= 0) {
+                throw new IllegalArgumentException("workers must be positive");
+            }
+
+            this.workers = workers;
+            return this;
+        }
+
+        public Builder queueCapacity(int queueCapacity) {
+            if (queueCapacity <= 0) {
+                throw new IllegalArgumentException("queueCapacity must be positive");
+            }
+
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * 只对平台线程有效，虚拟线程总是守护线程
+         */
+        public Builder daemon(boolean daemon) {
+            this.daemon = daemon;
+            return this;
+        }
+
+        /**
+         * 每个任务运行在自己的虚拟线程上，适合大量阻塞在 I/O、锁、sleep 上的任务
+         * 任务内的阻塞应使用 java.util.concurrent 的锁，synchronized 中阻塞会钉住载体线程
+         */
+        public Builder virtualThreads(boolean virtual) {
+            this.virtual = virtual;
+            return this;
+        }
+
+        public Builder exceptionHandler(TaskExceptionHandler exceptionHandler) {
+            this.exceptionHandler = exceptionHandler;
+            return this;
+        }
+
+        public WorkerRuntime build() {
+            return new WorkerRuntime(this);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.pain.white.thread.worker;
+
+/**
+ * 交给 WorkerRuntime 执行的任务，通过 token 感知取消
+ */
+@FunctionalInterface
+public interface WorkerTask {
+
+    void run(CancellationToken token) throws Exception;
+}
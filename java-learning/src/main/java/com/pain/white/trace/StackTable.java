@@ -0,0 +1,83 @@
+package com.pain.white.trace;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按折叠后的栈去重，每种栈分配一个 id 并累计采样次数
+ * 最多保存 capacity 种栈，满了之后新的栈只计入 overflow，内存不会随调用点无限增长
+ */
+class StackTable {
+    private final int capacity;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger ids = new AtomicInteger();
+    private final LongAdder overflow = new LongAdder();
+
+    StackTable(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * 表满并且是没见过的栈时返回 null
+     */
+    Entry intern(String folded) {
+        Entry entry = entries.get(folded);
+
+        if (entry == null) {
+            entry = entries.computeIfAbsent(folded, key -> {
+                int id = ids.getAndUpdate(i -> i < capacity ? i + 1 : i);
+                return id < capacity ? new Entry(id, key) : null;
+            });
+        }
+
+        if (entry == null) {
+            overflow.increment();
+            return null;
+        }
+
+        entry.count.increment();
+        return entry;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long overflow() {
+        return overflow.sum();
+    }
+
+    /**
+     * 按采样次数降序
+     */
+    List<Entry> snapshot() {
+        List<Entry> snapshot = new ArrayList<>(entries.values());
+        snapshot.sort(Comparator.comparingLong(Entry::count).reversed());
+        return snapshot;
+    }
+
+    static final int UNPUBLISHED = 0;
+    static final int PUBLISHING = 1;
+    static final int PUBLISHED = 2;
+
+    static final class Entry {
+        final int id;
+        final String folded;
+        final LongAdder count = new LongAdder();
+        // 栈的定义向 sink 成功写入一次之后，事件才只带 id 写出
+        final AtomicInteger publishState = new AtomicInteger(UNPUBLISHED);
+
+        Entry(int id, String folded) {
+            this.id = id;
+            this.folded = folded;
+        }
+
+        long count() {
+            return count.sum();
+        }
+    }
+}
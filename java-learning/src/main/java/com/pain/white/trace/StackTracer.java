@@ -0,0 +1,195 @@
+package com.pain.white.trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 代替 new Exception().printStackTrace() 的调用点追踪
+ *
+ * 1. 按 1/sampleRate 的概率采样，没被采到的调用只生成一个随机数
+ * 2. 用 StackWalker 只取调用方向上的 maxDepth 帧，不像 Throwable 那样填充整个栈
+ * 3. 相同的栈在 StackTable 中去重并计数，表的大小有上限
+ * 4. 有 sink 时，新出现的栈写一次定义，定义进入队列之后每次采样写一行只带 id 的事件，I/O 在 sink 的线程上完成
+ * 5. dumpFolded 随时导出折叠栈，可以直接交给 flamegraph.pl 生成火焰图
+ */
+public class StackTracer implements Closeable {
+    private final StackWalker walker;
+    private final int maxDepth;
+    private final int sampleRate;
+    private final StackTable table;
+    private final TraceSink sink;
+    private final LongAdder samples = new LongAdder();
+
+    private StackTracer(Builder builder) {
+        this.maxDepth = builder.maxDepth;
+        this.sampleRate = builder.sampleRate;
+        this.table = new StackTable(builder.tableCapacity);
+        this.sink = builder.sink;
+        // 多取两帧：trace 和 capture 自己
+        this.walker = StackWalker.getInstance(Set.of(), maxDepth + 2);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 以 label 为根记录当前调用栈，label 用来区分不同的诊断点
+     */
+    public void trace(String label) {
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return;
+        }
+
+        samples.increment();
+        StackTable.Entry entry = table.intern(label + ';' + capture());
+
+        if (sink == null) {
+            return;
+        }
+
+        if (entry == null) {
+            sink.offer(System.currentTimeMillis() + " " + Thread.currentThread().getName() + " " + label + " overflow");
+            return;
+        }
+
+        if (!publish(entry)) {
+            // 定义还没写进队列（队列满，或者另一个线程正在写），只带 id 的事件无法解析，不写
+            return;
+        }
+
+        sink.offer(System.currentTimeMillis() + " " + Thread.currentThread().getName() + " " + label + " " + entry.id);
+    }
+
+    /**
+     * 队列满时定义写不进去，恢复为未发布，由之后采到这个栈的调用重试
+     *
+     * @return 定义已经在队列中，之后写入的事件一定排在它后面
+     */
+    private boolean publish(StackTable.Entry entry) {
+        int state = entry.publishState.get();
+
+        if (state != StackTable.UNPUBLISHED) {
+            return state == StackTable.PUBLISHED;
+        }
+
+        if (!entry.publishState.compareAndSet(StackTable.UNPUBLISHED, StackTable.PUBLISHING)) {
+            return entry.publishState.get() == StackTable.PUBLISHED;
+        }
+
+        boolean offered = sink.offer("stack " + entry.id + " " + entry.folded);
+        entry.publishState.set(offered ? StackTable.PUBLISHED : StackTable.UNPUBLISHED);
+        return offered;
+    }
+
+    /**
+     * 折叠栈的格式：从外到内，帧之间用分号分隔，帧为 类名.方法名:行号
+     */
+    private String capture() {
+        return walker.walk(frames -> fold(frames.skip(2).limit(maxDepth).toList()));
+    }
+
+    private static String fold(List<StackWalker.StackFrame> frames) {
+        StringBuilder folded = new StringBuilder();
+
+        for (int i = frames.size() - 1; i >= 0; i--) {
+            StackWalker.StackFrame frame = frames.get(i);
+            folded.append(frame.getClassName()).append('.').append(frame.getMethodName())
+                    .append(':').append(frame.getLineNumber());
+
+            if (i > 0) {
+                folded.append(';');
+            }
+        }
+
+        return folded.toString();
+    }
+
+    /**
+     * 被采样到的调用次数
+     */
+    public long samples() {
+        return samples.sum();
+    }
+
+    public int distinctStacks() {
+        return table.size();
+    }
+
+    /**
+     * 每种栈一行：折叠栈 + 空格 + 采样次数，按次数降序；表满之后丢掉的栈合并为 [overflow]
+     */
+    public void dumpFolded(Appendable out) throws IOException {
+        for (StackTable.Entry entry : table.snapshot()) {
+            out.append(entry.folded).append(' ').append(Long.toString(entry.count())).append('\n');
+        }
+
+        long overflow = table.overflow();
+
+        if (overflow > 0) {
+            out.append("[overflow] ").append(Long.toString(overflow)).append('\n');
+        }
+    }
+
+    /**
+     * 关闭 sink，已经放进队列的记录会被写完
+     */
+    @Override
+    public void close() throws IOException {
+        if (sink != null) {
+            sink.close();
+        }
+    }
+
+    public static class Builder {
+        private int maxDepth = 16;
+        private int sampleRate = 1;
+        private int tableCapacity = 4096;
+        private TraceSink sink;
+
+        private Builder() {}
+
+        public Builder maxDepth(int maxDepth) {
+            if (maxDepth <= 0) {
+                throw new IllegalArgumentException("maxDepth must be positive");
+            }
+
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        /**
+         * 平均每 sampleRate 次调用采样一次，1 表示每次都采样
+         */
+        public Builder sampleRate(int sampleRate) {
+            if (sampleRate <= 0) {
+                throw new IllegalArgumentException("sampleRate must be positive");
+            }
+
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        public Builder tableCapacity(int tableCapacity) {
+            if (tableCapacity <= 0) {
+                throw new IllegalArgumentException("tableCapacity must be positive");
+            }
+
+            this.tableCapacity = tableCapacity;
+            return this;
+        }
+
+        public Builder sink(TraceSink sink) {
+            this.sink = sink;
+            return this;
+        }
+
+        public StackTracer build() {
+            return new StackTracer(this);
+        }
+    }
+}
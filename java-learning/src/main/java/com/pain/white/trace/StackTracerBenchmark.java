@@ -0,0 +1,105 @@
+package com.pain.white.trace;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在 32 层深的调用栈底部追踪一次调用的开销
+ * exception 是原来 ReflectTest.trace 的写法，输出到空流，不计终端的开销；真实写到 stderr 只会更慢
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StackTracerBenchmark {
+    private static final int CALL_DEPTH = 32;
+
+    private PrintStream nullStream;
+    private StackTracer everyCall;
+    private StackTracer sampled;
+    private StackTracer sampledWithSink;
+    private int i;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        nullStream = new PrintStream(OutputStream.nullOutputStream());
+        everyCall = StackTracer.builder().build();
+        sampled = StackTracer.builder().sampleRate(1000).build();
+        sampledWithSink = StackTracer.builder()
+                .sampleRate(1000)
+                .sink(new TraceSink(Writer.nullWriter(), 8192))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        sampledWithSink.close();
+    }
+
+    @Benchmark
+    public int baseline() {
+        return call(CALL_DEPTH, 0);
+    }
+
+    @Benchmark
+    public int exception() {
+        return call(CALL_DEPTH, 1);
+    }
+
+    @Benchmark
+    public int walkerEveryCall() {
+        return call(CALL_DEPTH, 2);
+    }
+
+    @Benchmark
+    public int walkerSampled() {
+        return call(CALL_DEPTH, 3);
+    }
+
+    @Benchmark
+    public int walkerSampledWithSink() {
+        return call(CALL_DEPTH, 4);
+    }
+
+    private int call(int depth, int mode) {
+        if (depth > 0) {
+            return call(depth - 1, mode) + 1;
+        }
+
+        switch (mode) {
+            case 1:
+                new Exception("# " + i++).printStackTrace(nullStream);
+                break;
+            case 2:
+                everyCall.trace("trace");
+                break;
+            case 3:
+                sampled.trace("trace");
+                break;
+            case 4:
+                sampledWithSink.trace("trace");
+                break;
+            default:
+        }
+
+        return 0;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(StackTracerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
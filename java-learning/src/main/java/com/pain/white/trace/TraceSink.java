@@ -0,0 +1,109 @@
+package com.pain.white.trace;
+
+import com.pain.white.thread.queue.BoundedQueue;
+import com.pain.white.thread.queue.RingQueues;
+import com.pain.white.thread.queue.WaitStrategy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步写出追踪记录：调用线程只把一行文本放进有界队列，由一个守护线程批量写入 Writer
+ * 队列满时丢弃并计数，不会阻塞调用线程，也不会在调用线程上做 I/O
+ */
+public class TraceSink implements Closeable {
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Writer out;
+    private final BoundedQueue<String> queue;
+    private final Thread writer;
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    public TraceSink(Writer out, int capacity) {
+        this.out = out;
+        this.queue = RingQueues.mpmc(capacity, WaitStrategy.PARK);
+        this.writer = new Thread(this::drain, "trace-sink");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * line 不带换行符；sink 已关闭或者队列已满时返回 false
+     */
+    public boolean offer(String line) {
+        if (closed || !queue.offer(line)) {
+            dropped.increment();
+            return false;
+        }
+
+        return true;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    private void drain() {
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+
+        try {
+            while (true) {
+                // 先读 closed 再取队列，关闭之前放进来的记录都会被写出
+                boolean closing = closed;
+
+                if (queue.drainTo(batch, BATCH_SIZE) == 0) {
+                    out.flush();
+
+                    if (closing) {
+                        return;
+                    }
+
+                    LockSupport.parkNanos(IDLE_NANOS);
+                    continue;
+                }
+
+                for (String line : batch) {
+                    out.write(line);
+                    out.write('\n');
+                }
+
+                batch.clear();
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * 写完队列中剩余的记录后关闭 Writer
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            out.close();
+        }
+
+        if (failure != null) {
+            throw new IOException("trace sink failed", failure);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.pain.white.validation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记需要在编译期生成校验器的 bean，由 ValidatorProcessor 在同一个包中生成 XxxGeneratedValidator
+ * 只处理字段上的约束，遇到不支持的约束时编译报错，而不是在运行时悄悄漏掉
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface GenerateValidator {
+}
@@ -0,0 +1,160 @@
+package com.pain.white.validation;
+
+import javax.validation.ElementKind;
+import javax.validation.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 生成的校验器拼出的属性路径，例如 friends[0].age，与 Hibernate Validator 一样，
+ * 容器的下标或键记在容器之后的那个节点上；字符串形式不区分 List 下标和 Map 的键，全是数字的按下标处理
+ */
+final class GeneratedPath implements Path {
+    private final String path;
+    private final List<Node> nodes;
+
+    private GeneratedPath(String path, List<Node> nodes) {
+        this.path = path;
+        this.nodes = nodes;
+    }
+
+    static GeneratedPath parse(String path) {
+        List<Node> nodes = new ArrayList<>();
+        boolean inIterable = false;
+        String container = null;
+        int i = 0;
+
+        while (i < path.length()) {
+            int end = i;
+
+            while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                end++;
+            }
+
+            nodes.add(new PropertyNode(path.substring(i, end), inIterable, container));
+            inIterable = false;
+            container = null;
+
+            if (end < path.length() && path.charAt(end) == '[') {
+                // 以第一个 ]. 为界，键本身含有 ]. 时无法区分
+                int close = path.indexOf("].", end);
+                close = close < 0 ? path.length() - 1 : close;
+                inIterable = true;
+                container = path.substring(end + 1, close);
+                end = close + 1;
+            }
+
+            i = end + 1;
+        }
+
+        return new GeneratedPath(path, Collections.unmodifiableList(nodes));
+    }
+
+    @Override
+    public Iterator<Node> iterator() {
+        return nodes.iterator();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof GeneratedPath && path.equals(((GeneratedPath) o).path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    private static final class PropertyNode implements Path.PropertyNode {
+        private final String name;
+        private final boolean inIterable;
+        private final Integer index;
+        private final Object key;
+
+        PropertyNode(String name, boolean inIterable, String container) {
+            this.name = name;
+            this.inIterable = inIterable;
+
+            if (container == null || container.isEmpty()) {
+                this.index = null;
+                this.key = null;
+            } else if (isIndex(container)) {
+                this.index = Integer.valueOf(container);
+                this.key = null;
+            } else {
+                this.index = null;
+                this.key = container;
+            }
+        }
+
+        private static boolean isIndex(String container) {
+            if (container.length() > 9) {
+                return false;
+            }
+
+            for (int i = 0; i < container.length(); i++) {
+                if (container.charAt(i) < '0' || container.charAt(i) > '9') {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean isInIterable() {
+            return inIterable;
+        }
+
+        @Override
+        public Integer getIndex() {
+            return index;
+        }
+
+        @Override
+        public Object getKey() {
+            return key;
+        }
+
+        @Override
+        public ElementKind getKind() {
+            return ElementKind.PROPERTY;
+        }
+
+        @Override
+        public Class<?> getContainerClass() {
+            return null;
+        }
+
+        @Override
+        public Integer getTypeArgumentIndex() {
+            return null;
+        }
+
+        @Override
+        public <T extends Node> T as(Class<T> nodeType) {
+            if (!nodeType.isInstance(this)) {
+                throw new ClassCastException("a property node can not be narrowed to " + nodeType.getName());
+            }
+
+            return nodeType.cast(this);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.pain.white.validation;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.ValidationException;
+import javax.validation.Validator;
+import javax.validation.groups.Default;
+import javax.validation.metadata.ConstraintDescriptor;
+import javax.validation.metadata.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 编译期生成的校验器的基类：通过 getter 直接读取属性值，原始类型不装箱，校验时不走反射
+ *
+ * 分组语义与 Validator.validate 相同：普通分组总是全部校验，每个 @GroupSequence 各自逐组校验，出现新的违规时只停止这个序列；
+ * 同一个违规只报告一次；@Valid 级联时只截断当前路径上的环
+ */
+public abstract class GeneratedValidator<T> {
+
+    public final Set<ConstraintViolation<T>> validate(T bean, Class<?>... groups) {
+        if (bean == null) {
+            throw new IllegalArgumentException("the object to be validated must not be null");
+        }
+
+        Class<?>[] requested = groups.length == 0 ? new Class<?>[]{Default.class} : groups;
+        Class<?>[] plainGroups = GroupSequences.plainGroups(requested);
+        Set<ConstraintViolation<T>> violations = new LinkedHashSet<>();
+
+        if (plainGroups.length > 0) {
+            violations.addAll(validateGroups(bean, plainGroups));
+        }
+
+        for (Class<?>[] sequence : GroupSequences.sequences(requested)) {
+            for (Class<?> group : sequence) {
+                // 同 Hibernate Validator，与已有违规相等的不算新的违规，不会让序列停止
+                if (violations.addAll(validateGroups(bean, group))) {
+                    break;
+                }
+            }
+        }
+
+        return violations.isEmpty() ? Collections.emptySet() : violations;
+    }
+
+    private Set<ConstraintViolation<T>> validateGroups(T bean, Class<?>... groups) {
+        ValidationContext<T> context = new ValidationContext<>(bean, groups);
+        cascade(bean, context, "");
+        return context.getViolations();
+    }
+
+    /**
+     * 由生成的代码调用，校验级联的对象
+     */
+    public final void cascade(T bean, ValidationContext<?> context, String path) {
+        if (bean != null && context.enter(bean)) {
+            try {
+                validateBean(bean, context, path);
+            } finally {
+                context.exit(bean);
+            }
+        }
+    }
+
+    protected abstract void validateBean(T bean, ValidationContext<?> context, String path);
+
+    /**
+     * 生成的类在静态初始化时取一次约束的元数据，违规的 getConstraintDescriptor 返回它
+     * 字段上同一种约束只允许出现一次，属性名和注解类型就能确定唯一的约束
+     */
+    protected static ConstraintDescriptor<?> descriptor(Class<?> type, String property, Class<? extends Annotation> annotationType) {
+        PropertyDescriptor propertyDescriptor = Metadata.VALIDATOR.getConstraintsForClass(type).getConstraintsForProperty(property);
+
+        if (propertyDescriptor != null) {
+            for (ConstraintDescriptor<?> descriptor : propertyDescriptor.getConstraintDescriptors()) {
+                if (descriptor.getAnnotation().annotationType() == annotationType) {
+                    return descriptor;
+                }
+            }
+        }
+
+        throw new IllegalStateException("generated validator is out of date: " + type.getName() + "." + property
+                + " has no @" + annotationType.getSimpleName());
+    }
+
+    /**
+     * 委托的校验器取自约束的元数据，内置约束（例如 @Email）也不需要引用 Hibernate Validator 的内部类
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected static ConstraintValidator<?, Object> delegate(ConstraintDescriptor<?> descriptor) {
+        List<? extends Class<? extends ConstraintValidator<?, ?>>> validators = descriptor.getConstraintValidatorClasses();
+
+        if (validators.size() != 1) {
+            throw new IllegalStateException("expected exactly one validator for @"
+                    + descriptor.getAnnotation().annotationType().getSimpleName() + ": " + validators);
+        }
+
+        try {
+            ConstraintValidator validator = validators.get(0).getDeclaredConstructor().newInstance();
+            validator.initialize(descriptor.getAnnotation());
+            return validator;
+        } catch (ReflectiveOperationException e) {
+            throw new ValidationException("can not instantiate " + validators.get(0).getName(), e);
+        }
+    }
+
+    /**
+     * 委托的校验器不会用到 ConstraintValidatorContext；与 Hibernate Validator 一样，isValid 抛出的异常包装为 ValidationException
+     */
+    protected static boolean isValid(ConstraintValidator<?, Object> validator, Object value) {
+        try {
+            return validator.isValid(value, null);
+        } catch (RuntimeException e) {
+            throw new ValidationException("unexpected exception during isValid call", e);
+        }
+    }
+
+    /**
+     * 只用来读取约束的元数据，第一个生成的校验器类初始化时创建
+     */
+    private static final class Metadata {
+        static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+    }
+}
@@ -0,0 +1,37 @@
+package com.pain.white.validation;
+
+import java.lang.reflect.Field;
+
+/**
+ * 按命名约定查找生成的校验器：com.foo.Bar 对应 com.foo.BarGeneratedValidator.INSTANCE
+ * 每个类只查找一次
+ */
+public class GeneratedValidators {
+    public static final String SUFFIX = "GeneratedValidator";
+
+    private static final ClassValue<GeneratedValidator<?>> VALIDATORS = new ClassValue<GeneratedValidator<?>>() {
+        @Override
+        protected GeneratedValidator<?> computeValue(Class<?> type) {
+            try {
+                Class<?> generated = Class.forName(type.getName() + SUFFIX, true, type.getClassLoader());
+                Field instance = generated.getDeclaredField("INSTANCE");
+                instance.setAccessible(true);
+                return (GeneratedValidator<?>) instance.get(null);
+            } catch (ClassNotFoundException e) {
+                return null;
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("broken generated validator for " + type.getName(), e);
+            }
+        }
+    };
+
+    private GeneratedValidators() {}
+
+    /**
+     * 没有标注 @GenerateValidator 的类返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> GeneratedValidator<T> find(Class<T> type) {
+        return (GeneratedValidator<T>) VALIDATORS.get(type);
+    }
+}
@@ -0,0 +1,121 @@
+package com.pain.white.validation;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Path;
+import javax.validation.ValidationException;
+import javax.validation.metadata.ConstraintDescriptor;
+
+/**
+ * 生成的校验器产生的违规，消息和属性路径与 Hibernate Validator 一致
+ * ConstraintDescriptor 是校验器实现提供的元数据；约束只允许字面消息，消息模板即消息本身
+ * 只有 Bean 校验，没有方法参数和返回值
+ */
+class GeneratedViolation<T> implements ConstraintViolation<T> {
+    private final ConstraintDescriptor<?> descriptor;
+    private final T rootBean;
+    private final Object leafBean;
+    private final String path;
+    private final Object invalidValue;
+
+    GeneratedViolation(ConstraintDescriptor<?> descriptor, T rootBean, Object leafBean, String path, Object invalidValue) {
+        this.descriptor = descriptor;
+        this.rootBean = rootBean;
+        this.leafBean = leafBean;
+        this.path = path;
+        this.invalidValue = invalidValue;
+    }
+
+    @Override
+    public String getMessage() {
+        return descriptor.getMessageTemplate();
+    }
+
+    @Override
+    public String getMessageTemplate() {
+        return descriptor.getMessageTemplate();
+    }
+
+    @Override
+    public T getRootBean() {
+        return rootBean;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Class<T> getRootBeanClass() {
+        return (Class<T>) rootBean.getClass();
+    }
+
+    @Override
+    public Object getLeafBean() {
+        return leafBean;
+    }
+
+    @Override
+    public Object[] getExecutableParameters() {
+        return null;
+    }
+
+    @Override
+    public Object getExecutableReturnValue() {
+        return null;
+    }
+
+    @Override
+    public Path getPropertyPath() {
+        return GeneratedPath.parse(path);
+    }
+
+    @Override
+    public Object getInvalidValue() {
+        return invalidValue;
+    }
+
+    @Override
+    public ConstraintDescriptor<?> getConstraintDescriptor() {
+        return descriptor;
+    }
+
+    @Override
+    public <U> U unwrap(Class<U> type) {
+        if (type.isInstance(this)) {
+            return type.cast(this);
+        }
+
+        throw new ValidationException("can not unwrap to " + type.getName());
+    }
+
+    /**
+     * 同 Hibernate Validator：根对象、叶子对象和非法值都比较引用，装箱后不在缓存范围内的原始类型值每次都是新的对象，两边同样不相等
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof GeneratedViolation)) {
+            return false;
+        }
+
+        GeneratedViolation<?> that = (GeneratedViolation<?>) o;
+        return rootBean == that.rootBean
+                && leafBean == that.leafBean
+                && path.equals(that.path)
+                && invalidValue == that.invalidValue
+                && descriptor.equals(that.descriptor);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = System.identityHashCode(rootBean);
+        result = 31 * result + System.identityHashCode(leafBean);
+        result = 31 * result + path.hashCode();
+        return 31 * result + descriptor.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return path + ": " + getMessage();
+    }
+}
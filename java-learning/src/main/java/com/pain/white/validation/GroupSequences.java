@@ -0,0 +1,46 @@
+package com.pain.white.validation;
+
+import javax.validation.GroupSequence;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 与 Hibernate Validator 一样拆分校验分组：普通分组合并为一步，总是全部校验；
+ * 每个带 @GroupSequence 的分组单独成为一个序列，序列中某个分组出现违规时只停止这个序列，不影响普通分组和其他序列
+ */
+public class GroupSequences {
+
+    private GroupSequences() {}
+
+    /**
+     * 不带 @GroupSequence 的分组，保持传入的顺序
+     */
+    public static Class<?>[] plainGroups(Class<?>... groups) {
+        List<Class<?>> plain = new ArrayList<>();
+
+        for (Class<?> group : groups) {
+            if (!group.isAnnotationPresent(GroupSequence.class)) {
+                plain.add(group);
+            }
+        }
+
+        return plain.toArray(new Class<?>[0]);
+    }
+
+    /**
+     * 每个带 @GroupSequence 的分组展开后的成员，按声明的顺序排列
+     */
+    public static List<Class<?>[]> sequences(Class<?>... groups) {
+        List<Class<?>[]> sequences = new ArrayList<>();
+
+        for (Class<?> group : groups) {
+            GroupSequence sequence = group.getAnnotation(GroupSequence.class);
+
+            if (sequence != null) {
+                sequences.add(sequence.value());
+            }
+        }
+
+        return sequences;
+    }
+}
@@ -0,0 +1,61 @@
+package com.pain.white.validation;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.metadata.ConstraintDescriptor;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 一次校验（普通分组合并的一步，或序列中的一个分组）的状态：当前分组、当前路径上的实例和收集到的违规
+ */
+public final class ValidationContext<R> {
+    private final R root;
+    private final Class<?>[] groups;
+    private final Set<Object> path = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<ConstraintViolation<R>> violations = new LinkedHashSet<>();
+
+    ValidationContext(R root, Class<?>[] groups) {
+        this.root = root;
+        this.groups = groups;
+    }
+
+    /**
+     * 约束所属的分组中有一个是当前分组或其父接口时，约束生效
+     */
+    public boolean isActive(Class<?>[] constraintGroups) {
+        for (Class<?> group : groups) {
+            for (Class<?> constraintGroup : constraintGroups) {
+                if (constraintGroup.isAssignableFrom(group)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @param path 所在节点的路径前缀，根节点为空串，其他节点以 . 结尾，例如 friends[0].
+     */
+    public void addViolation(ConstraintDescriptor<?> descriptor, String path, String property, Object leafBean, Object invalidValue) {
+        violations.add(new GeneratedViolation<>(descriptor, root, leafBean, path + property, invalidValue));
+    }
+
+    /**
+     * 与 Hibernate Validator 一样只截断环：实例已经在当前路径上时返回 false，
+     * 同一个实例从不同的路径到达时在每条路径下都要校验，违规按各自的路径报告
+     */
+    boolean enter(Object bean) {
+        return path.add(bean);
+    }
+
+    void exit(Object bean) {
+        path.remove(bean);
+    }
+
+    Set<ConstraintViolation<R>> getViolations() {
+        return violations;
+    }
+}
@@ -0,0 +1,165 @@
+package com.pain.white.validation.constraints;
+
+/**
+ * 常用格式的手写匹配：逐个字符扫描，不创建 Matcher，也不分配任何对象
+ * 参数不能为 null，null 的语义由各个 ConstraintValidator 处理
+ */
+public final class Formats {
+    public static final int PHONE_LENGTH = 11;
+    public static final int ID_NUMBER_LENGTH = 18;
+
+    private static final int MAX_LOCAL_PART_LENGTH = 64;
+    private static final int MAX_DOMAIN_LENGTH = 255;
+    private static final int MAX_LABEL_LENGTH = 63;
+
+    // 身份证前 17 位的加权系数，以及加权和模 11 对应的校验码
+    private static final int[] ID_WEIGHTS = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+    private static final String ID_CHECK_CODES = "10X98765432";
+
+    // RFC 5322 中 atext 允许的标点
+    private static final String LOCAL_PART_SYMBOLS = "!#$%&'*+-/=?^_`{|}~";
+
+    private Formats() {}
+
+    /**
+     * 11 位数字，并以 prefixes 中的某一个开头
+     */
+    public static boolean isPhone(CharSequence value, String[] prefixes) {
+        if (value.length() != PHONE_LENGTH || !isDigits(value, 0, PHONE_LENGTH)) {
+            return false;
+        }
+
+        for (String prefix : prefixes) {
+            if (startsWith(value, prefix)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * 18 位居民身份证号：17 位数字加一位校验码（数字或 X，小写 x 也接受），出生日期的月份和日期在合法范围内
+     */
+    public static boolean isIdNumber(CharSequence value) {
+        if (value.length() != ID_NUMBER_LENGTH || !isDigits(value, 0, ID_NUMBER_LENGTH - 1)) {
+            return false;
+        }
+
+        int month = digit(value, 10) * 10 + digit(value, 11);
+        int day = digit(value, 12) * 10 + digit(value, 13);
+
+        if (month < 1 || month > 12 || day < 1 || day > 31) {
+            return false;
+        }
+
+        int sum = 0;
+
+        for (int i = 0; i < ID_WEIGHTS.length; i++) {
+            sum += digit(value, i) * ID_WEIGHTS[i];
+        }
+
+        char check = value.charAt(ID_NUMBER_LENGTH - 1);
+        return Character.toUpperCase(check) == ID_CHECK_CODES.charAt(sum % 11);
+    }
+
+    /**
+     * 常见的邮箱地址：local@domain
+     * local 部分由字母、数字和 atext 标点组成，点号不能出现在首尾或连续出现；
+     * domain 由点号分隔的标签组成，标签只含字母、数字和连字符，连字符不能在首尾
+     * 不支持带引号的 local 部分、IP 字面量和国际化域名
+     */
+    public static boolean isEmail(CharSequence value) {
+        int length = value.length();
+        int at = -1;
+
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+
+            if (c == '@') {
+                at = i;
+                break;
+            }
+
+            boolean dot = c == '.';
+
+            if (!dot && !isLetterOrDigit(c) && LOCAL_PART_SYMBOLS.indexOf(c) < 0) {
+                return false;
+            }
+
+            if (dot && (i == 0 || value.charAt(i - 1) == '.')) {
+                return false;
+            }
+        }
+
+        if (at <= 0 || at > MAX_LOCAL_PART_LENGTH || value.charAt(at - 1) == '.') {
+            return false;
+        }
+
+        return isDomain(value, at + 1, length);
+    }
+
+    private static boolean isDomain(CharSequence value, int from, int to) {
+        if (from == to || to - from > MAX_DOMAIN_LENGTH) {
+            return false;
+        }
+
+        int labelStart = from;
+
+        for (int i = from; i <= to; i++) {
+            if (i == to || value.charAt(i) == '.') {
+                int labelLength = i - labelStart;
+
+                if (labelLength == 0 || labelLength > MAX_LABEL_LENGTH
+                        || value.charAt(labelStart) == '-' || value.charAt(i - 1) == '-') {
+                    return false;
+                }
+
+                labelStart = i + 1;
+            } else {
+                char c = value.charAt(i);
+
+                if (c != '-' && !isLetterOrDigit(c)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean startsWith(CharSequence value, String prefix) {
+        if (prefix.length() > value.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < prefix.length(); i++) {
+            if (value.charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    static boolean isDigits(CharSequence value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int digit(CharSequence value, int index) {
+        return value.charAt(index) - '0';
+    }
+
+    // Character.isLetterOrDigit 也接受汉字和全角数字，这里只要 ASCII
+    private static boolean isLetterOrDigit(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+}
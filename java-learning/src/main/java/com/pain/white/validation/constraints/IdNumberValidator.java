@@ -0,0 +1,12 @@
+package com.pain.white.validation.constraints;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+public class IdNumberValidator implements ConstraintValidator<IdNumber, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || Formats.isIdNumber(value);
+    }
+}
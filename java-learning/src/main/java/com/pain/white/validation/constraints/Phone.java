@@ -0,0 +1,29 @@
+package com.pain.white.validation.constraints;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 11 位手机号，以 prefixes 中的某一个号段开头；null 视为合法，需要非空时再加 @NotNull
+ */
+@Documented
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = PhoneValidator.class)
+public @interface Phone {
+    String message() default "invalid phone";
+
+    /**
+     * 允许的号段，只能由数字组成，长度不超过 11
+     */
+    String[] prefixes() default {"139"};
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
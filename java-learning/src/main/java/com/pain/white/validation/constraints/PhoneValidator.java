@@ -0,0 +1,29 @@
+package com.pain.white.validation.constraints;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+public class PhoneValidator implements ConstraintValidator<Phone, CharSequence> {
+    private String[] prefixes;
+
+    /**
+     * 号段写错时在初始化阶段就失败，而不是让所有号码都校验不通过
+     */
+    @Override
+    public void initialize(Phone constraintAnnotation) {
+        String[] prefixes = constraintAnnotation.prefixes().clone();
+
+        for (String prefix : prefixes) {
+            if (prefix.isEmpty() || prefix.length() > Formats.PHONE_LENGTH || !Formats.isDigits(prefix, 0, prefix.length())) {
+                throw new IllegalArgumentException("invalid phone prefix: " + prefix);
+            }
+        }
+
+        this.prefixes = prefixes;
+    }
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || Formats.isPhone(value, prefixes);
+    }
+}
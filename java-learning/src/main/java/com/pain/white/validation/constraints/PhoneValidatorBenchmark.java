@@ -0,0 +1,82 @@
+package com.pain.white.validation.constraints;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 每次调用校验 1 亿个号码（循环使用 4096 个样本，其中一半合法），与原来预编译正则的写法对比
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PhoneValidatorBenchmark {
+    private static final int VALIDATIONS = 100_000_000;
+    private static final int SAMPLES = 4096;
+    private static final Pattern VALID_PHONE = Pattern.compile("139\\d{8}");
+
+    // 只用来读取默认的 @Phone
+    @Phone
+    private String phone;
+
+    private String[] phones;
+    private PhoneValidator validator;
+
+    @Setup(Level.Trial)
+    public void setup() throws NoSuchFieldException {
+        Random random = new Random(42);
+        phones = new String[SAMPLES];
+
+        for (int i = 0; i < SAMPLES; i++) {
+            String prefix = i % 2 == 0 ? "139" : "138";
+            phones[i] = prefix + String.format("%08d", random.nextInt(100000000));
+        }
+
+        validator = new PhoneValidator();
+        validator.initialize(PhoneValidatorBenchmark.class.getDeclaredField("phone").getAnnotation(Phone.class));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALIDATIONS)
+    public int regex() {
+        int valid = 0;
+
+        for (int i = 0; i < VALIDATIONS; i++) {
+            if (VALID_PHONE.matcher(phones[i & (SAMPLES - 1)]).matches()) {
+                valid++;
+            }
+        }
+
+        return valid;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALIDATIONS)
+    public int scan() {
+        int valid = 0;
+
+        for (int i = 0; i < VALIDATIONS; i++) {
+            if (validator.isValid(phones[i & (SAMPLES - 1)], null)) {
+                valid++;
+            }
+        }
+
+        return valid;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PhoneValidatorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,204 @@
+package com.pain.white.validation.processor;
+
+import com.pain.white.validation.processor.ValidatorProcessor.Cascade;
+import com.pain.white.validation.processor.ValidatorProcessor.Constraint;
+import com.pain.white.validation.processor.ValidatorProcessor.Property;
+
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 拼接生成的校验器源码。每个属性只调用一次 getter，违规条件直接写成比较表达式
+ */
+class SourceWriter {
+    private final TypeElement bean;
+    private final String packageName;
+    private final String simpleName;
+    private final List<Property> properties;
+
+    // 分组数组、约束的元数据和委托校验器都是静态常量，相同的分组共用一个数组
+    private final Map<String, String> groupConstants = new LinkedHashMap<>();
+    private final StringBuilder constants = new StringBuilder();
+    private final StringBuilder body = new StringBuilder();
+
+    SourceWriter(TypeElement bean, String packageName, String simpleName, List<Property> properties) {
+        this.bean = bean;
+        this.packageName = packageName;
+        this.simpleName = simpleName;
+        this.properties = properties;
+    }
+
+    String write() {
+        String beanName = bean.getQualifiedName().toString();
+        String modifier = bean.getModifiers().contains(Modifier.PUBLIC) ? "public " : "";
+
+        for (Property property : properties) {
+            writeProperty(property);
+        }
+
+        StringBuilder source = new StringBuilder();
+
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+
+        source.append("/**\n")
+                .append(" * 由 ValidatorProcessor 根据 ").append(bean.getSimpleName()).append(" 上的约束生成，不要手工修改\n")
+                .append(" */\n")
+                .append("@javax.annotation.processing.Generated(\"").append(ValidatorProcessor.class.getName()).append("\")\n")
+                .append(modifier).append("final class ").append(simpleName)
+                .append(" extends com.pain.white.validation.GeneratedValidator<").append(beanName).append("> {\n")
+                .append("    ").append(modifier).append("static final ").append(simpleName)
+                .append(" INSTANCE = new ").append(simpleName).append("();\n")
+                .append(constants)
+                .append("\n")
+                .append("    private ").append(simpleName).append("() {}\n\n")
+                .append("    @Override\n")
+                .append("    protected void validateBean(").append(beanName)
+                .append(" bean, com.pain.white.validation.ValidationContext<?> context, String path) {\n")
+                .append(body.toString().stripTrailing()).append("\n")
+                .append("    }\n")
+                .append("}\n");
+
+        return source.toString();
+    }
+
+    private void writeProperty(Property property) {
+        String variable = property.variable;
+
+        body.append("        var ").append(variable).append(" = bean.").append(property.accessor).append(";\n\n");
+
+        int index = 0;
+
+        for (Constraint constraint : property.constraints) {
+            if (!constraint.delegate && constraint.condition == null) {
+                continue;
+            }
+
+            String annotation = constraint.annotationType;
+            String descriptor = constantName(property.name) + "_" + annotation.substring(annotation.lastIndexOf('.') + 1).toUpperCase() + "_" + index++;
+
+            constants.append("    private static final javax.validation.metadata.ConstraintDescriptor<?> ").append(descriptor)
+                    .append(" = descriptor(").append(bean.getQualifiedName()).append(".class, ").append(literal(property.name))
+                    .append(", ").append(annotation).append(".class);\n");
+
+            String condition = condition(property, constraint, descriptor);
+
+            // 先判断分组，不生效的约束不会去调用委托的校验器
+            body.append("        if (context.isActive(").append(groups(constraint.groups)).append(") && (").append(condition).append(")) {\n")
+                    .append("            context.addViolation(").append(descriptor)
+                    .append(", path, ").append(literal(property.name)).append(", bean, ").append(variable).append(");\n")
+                    .append("        }\n\n");
+        }
+
+        if (property.cascade != Cascade.NONE) {
+            writeCascade(property);
+        }
+    }
+
+    private String condition(Property property, Constraint constraint, String descriptor) {
+        if (!constraint.delegate) {
+            return String.format(constraint.condition, property.variable);
+        }
+
+        String validator = descriptor + "_VALIDATOR";
+
+        constants.append("    private static final javax.validation.ConstraintValidator<?, Object> ").append(validator)
+                .append(" = delegate(").append(descriptor).append(");\n");
+
+        return "!isValid(" + validator + ", " + property.variable + ")";
+    }
+
+    private void writeCascade(Property property) {
+        String variable = property.variable;
+        String target = property.target + ".INSTANCE";
+        String prefix = literal(property.name + "[");
+
+        switch (property.cascade) {
+            case BEAN:
+                body.append("        ").append(target).append(".cascade(").append(variable).append(", context, path + ")
+                        .append(literal(property.name + ".")).append(");\n\n");
+                return;
+            case MAP:
+                body.append("        if (").append(variable).append(" != null) {\n")
+                        .append("            for (var entry : ").append(variable).append(".entrySet()) {\n")
+                        .append("                ").append(target).append(".cascade(entry.getValue(), context, path + ")
+                        .append(prefix).append(" + entry.getKey() + \"].\");\n")
+                        .append("            }\n")
+                        .append("        }\n\n");
+                return;
+            default:
+        }
+
+        // 与 Hibernate Validator 一样，List 的路径带下标，其他 Iterable 没有下标
+        boolean indexed = property.cascade == Cascade.LIST;
+
+        body.append("        if (").append(variable).append(" != null) {\n");
+
+        if (indexed) {
+            body.append("            int index = 0;\n\n");
+        }
+
+        body.append("            for (var element : ").append(variable).append(") {\n")
+                .append("                ").append(target).append(".cascade(element, context, path + ")
+                .append(indexed ? prefix + " + index++ + \"].\"" : literal(property.name + "[].")).append(");\n")
+                .append("            }\n")
+                .append("        }\n\n");
+    }
+
+    private String groups(List<String> groups) {
+        String key = String.join(", ", groups);
+        String name = groupConstants.get(key);
+
+        if (name == null) {
+            name = "GROUPS_" + groupConstants.size();
+            groupConstants.put(key, name);
+
+            constants.append("    private static final Class<?>[] ").append(name).append(" = {");
+
+            for (int i = 0; i < groups.size(); i++) {
+                constants.append(i == 0 ? "" : ", ").append(groups.get(i)).append(".class");
+            }
+
+            constants.append("};\n");
+        }
+
+        return name;
+    }
+
+    private static String constantName(String property) {
+        StringBuilder name = new StringBuilder();
+
+        for (char c : property.toCharArray()) {
+            if (Character.isUpperCase(c)) {
+                name.append('_');
+            }
+
+            name.append(Character.toUpperCase(c));
+        }
+
+        return name.toString();
+    }
+
+    /**
+     * 非 ASCII 字符一律转义，生成的源文件与编译器的编码设置无关
+     */
+    static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                literal.append('\\').append(c);
+            } else if (c >= 0x20 && c < 0x7f) {
+                literal.append(c);
+            } else {
+                literal.append(String.format("\\u%04x", (int) c));
+            }
+        }
+
+        return literal.append('"').toString();
+    }
+}
@@ -0,0 +1,454 @@
+package com.pain.white.validation.processor;
+
+import com.pain.white.validation.GeneratedValidators;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 为标注了 @GenerateValidator 的类生成 XxxGeneratedValidator，把字段上的约束翻译成直接的 getter 调用和比较
+ *
+ * 常用的内置约束直接生成判断代码；@Email 和自定义约束（@Constraint(validatedBy = ...)）委托给对应的 ConstraintValidator，
+ * 约束的 ConstraintDescriptor 和委托的校验器都在生成类的静态初始化中从校验器实现的元数据里取一次。
+ * 不认识的约束、消息模板、类级别和 getter 上的约束都在编译期报错
+ */
+@SupportedAnnotationTypes(ValidatorProcessor.GENERATE_VALIDATOR)
+public class ValidatorProcessor extends AbstractProcessor {
+    static final String GENERATE_VALIDATOR = "com.pain.white.validation.GenerateValidator";
+
+    private static final String CONSTRAINT = "javax.validation.Constraint";
+    private static final String VALID = "javax.validation.Valid";
+    private static final String GROUP_SEQUENCE = "javax.validation.GroupSequence";
+    private static final String DEFAULT_GROUP = "javax.validation.groups.Default";
+    private static final String BV = "javax.validation.constraints.";
+    private static final String HV = "org.hibernate.validator.constraints.";
+
+    // 内置的 @Email 没有在 @Constraint 中声明校验器，运行时由校验器实现的元数据给出
+    private static final Set<String> BUILT_IN_DELEGATES = Set.of(BV + "Email", HV + "Email");
+
+    private static final Set<String> RESERVED_NAMES = Set.of("bean", "context", "path", "index", "element", "entry");
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                try {
+                    generate(element);
+                } catch (InvalidBeanException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element);
+                } catch (IOException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "can not write generated validator: " + e.getMessage(), element);
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private void generate(Element element) throws IOException {
+        if (element.getKind() != ElementKind.CLASS || ((TypeElement) element).getNestingKind() != NestingKind.TOP_LEVEL) {
+            throw new InvalidBeanException("@GenerateValidator only supports top level classes", element);
+        }
+
+        TypeElement bean = (TypeElement) element;
+        checkUnsupported(bean);
+
+        List<Property> properties = new ArrayList<>();
+
+        for (VariableElement field : ElementFilter.fieldsIn(bean.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+
+            Property property = property(field);
+
+            if (!property.constraints.isEmpty() || property.cascade != Cascade.NONE) {
+                property.accessor = accessor(bean, field);
+                properties.add(property);
+            }
+        }
+
+        String packageName = processingEnv.getElementUtils().getPackageOf(bean).getQualifiedName().toString();
+        String simpleName = bean.getSimpleName() + GeneratedValidators.SUFFIX;
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, bean).openWriter()) {
+            writer.write(new SourceWriter(bean, packageName, simpleName, properties).write());
+        }
+    }
+
+    /**
+     * 生成的代码只看字段，其他位置上的约束会被漏掉，直接报错
+     */
+    private void checkUnsupported(TypeElement bean) {
+        if (findAnnotation(bean, GROUP_SEQUENCE) != null) {
+            throw new InvalidBeanException("redefining the default group sequence is not supported", bean);
+        }
+
+        if (!constraintsOf(bean).isEmpty()) {
+            throw new InvalidBeanException("class level constraints are not supported", bean);
+        }
+
+        for (ExecutableElement method : ElementFilter.methodsIn(bean.getEnclosedElements())) {
+            if (!constraintsOf(method).isEmpty() || findAnnotation(method, VALID) != null) {
+                throw new InvalidBeanException("getter constraints are not supported", method);
+            }
+        }
+
+        TypeMirror superclass = bean.getSuperclass();
+
+        while (superclass.getKind() == TypeKind.DECLARED) {
+            TypeElement type = (TypeElement) ((DeclaredType) superclass).asElement();
+
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                if (!constraintsOf(field).isEmpty() || findAnnotation(field, VALID) != null) {
+                    throw new InvalidBeanException("inherited constraints are not supported: "
+                            + type.getSimpleName() + "." + field.getSimpleName(), bean);
+                }
+            }
+
+            superclass = type.getSuperclass();
+        }
+    }
+
+    private Property property(VariableElement field) {
+        String name = field.getSimpleName().toString();
+        Property property = new Property(name, RESERVED_NAMES.contains(name) ? name + "Value" : name);
+
+        for (AnnotationMirror mirror : constraintsOf(field)) {
+            property.constraints.add(constraint(field, mirror));
+        }
+
+        cascade(field, property);
+        return property;
+    }
+
+    private String accessor(TypeElement bean, VariableElement field) {
+        String name = field.getSimpleName().toString();
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+
+        for (ExecutableElement method : ElementFilter.methodsIn(bean.getEnclosedElements())) {
+            String methodName = method.getSimpleName().toString();
+
+            if (method.getParameters().isEmpty()
+                    && !method.getModifiers().contains(Modifier.PRIVATE)
+                    && !method.getModifiers().contains(Modifier.STATIC)
+                    && (methodName.equals("get" + capitalized)
+                    || (methodName.equals("is" + capitalized) && field.asType().getKind() == TypeKind.BOOLEAN))) {
+                return methodName + "()";
+            }
+        }
+
+        if (!field.getModifiers().contains(Modifier.PRIVATE)) {
+            return name;
+        }
+
+        throw new InvalidBeanException("no getter for constrained field " + name, field);
+    }
+
+    private Constraint constraint(VariableElement field, AnnotationMirror mirror) {
+        TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+        String type = annotationType.getQualifiedName().toString();
+        Map<String, AnnotationValue> values = values(mirror);
+        String message = (String) values.get("message").getValue();
+
+        if (message.indexOf('{') >= 0 || message.indexOf('$') >= 0) {
+            throw new InvalidBeanException("message templates are not supported, use a literal message: " + message, field);
+        }
+
+        List<String> groups = new ArrayList<>();
+
+        for (Object group : (List<?>) values.get("groups").getValue()) {
+            groups.add(processingEnv.getTypeUtils().erasure((TypeMirror) ((AnnotationValue) group).getValue()).toString());
+        }
+
+        if (groups.isEmpty()) {
+            groups.add(DEFAULT_GROUP);
+        }
+
+        Constraint constraint = new Constraint(type, groups);
+        TypeMirror fieldType = field.asType();
+
+        switch (type) {
+            case BV + "NotNull":
+                constraint.condition = fieldType.getKind().isPrimitive() ? null : "%s == null";
+                break;
+            case BV + "NotEmpty":
+            case HV + "NotEmpty":
+                constraint.condition = "%1$s == null || " + length(field, fieldType) + " == 0";
+                break;
+            case BV + "NotBlank":
+            case HV + "NotBlank":
+                requireCharSequence(field, fieldType, type);
+                constraint.condition = "%1$s == null || %1$s.toString().trim().isEmpty()";
+                break;
+            case BV + "Size":
+                constraint.condition = range(length(field, fieldType), values);
+                break;
+            case HV + "Length":
+                requireCharSequence(field, fieldType, type);
+                constraint.condition = range("%1$s.length()", values);
+                break;
+            case BV + "Min":
+                constraint.condition = compare(field, fieldType, "<", values.get("value").getValue());
+                break;
+            case BV + "Max":
+                constraint.condition = compare(field, fieldType, ">", values.get("value").getValue());
+                break;
+            case BV + "Past":
+                requireType(field, fieldType, "java.util.Date", type);
+                constraint.condition = "%1$s != null && %1$s.getTime() >= System.currentTimeMillis()";
+                break;
+            case BV + "Future":
+                requireType(field, fieldType, "java.util.Date", type);
+                constraint.condition = "%1$s != null && %1$s.getTime() <= System.currentTimeMillis()";
+                break;
+            default:
+                checkDelegate(field, annotationType, type);
+                constraint.delegate = true;
+        }
+
+        return constraint;
+    }
+
+    private void checkDelegate(VariableElement field, TypeElement annotationType, String type) {
+        if (BUILT_IN_DELEGATES.contains(type)) {
+            return;
+        }
+
+        List<?> validators = (List<?>) values(findAnnotation(annotationType, CONSTRAINT)).get("validatedBy").getValue();
+
+        if (validators.size() != 1) {
+            throw new InvalidBeanException("unsupported constraint @" + annotationType.getSimpleName()
+                    + ", custom constraints must declare exactly one validator", field);
+        }
+    }
+
+    private String length(VariableElement field, TypeMirror type) {
+        if (isSubtype(type, "java.lang.CharSequence")) {
+            return "%1$s.length()";
+        }
+
+        if ((isSubtype(type, "java.util.Collection") || isSubtype(type, "java.util.Map"))) {
+            return "%1$s.size()";
+        }
+
+        if (type.getKind() == TypeKind.ARRAY) {
+            return "%1$s.length";
+        }
+
+        throw new InvalidBeanException("unsupported type for size constraints: " + type, field);
+    }
+
+    private static String range(String length, Map<String, AnnotationValue> values) {
+        return "%1$s != null && (" + length + " < " + values.get("min").getValue()
+                + " || " + length + " > " + values.get("max").getValue() + ")";
+    }
+
+    private String compare(VariableElement field, TypeMirror type, String operator, Object bound) {
+        switch (type.getKind()) {
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+                return "%1$s " + operator + " " + bound + "L";
+            default:
+        }
+
+        for (String boxed : new String[]{"java.lang.Byte", "java.lang.Short", "java.lang.Integer", "java.lang.Long"}) {
+            if (isSubtype(type, boxed)) {
+                return "%1$s != null && %1$s " + operator + " " + bound + "L";
+            }
+        }
+
+        throw new InvalidBeanException("unsupported type for @Min/@Max: " + type, field);
+    }
+
+    private void requireCharSequence(VariableElement field, TypeMirror type, String constraint) {
+        requireType(field, type, "java.lang.CharSequence", constraint);
+    }
+
+    private void requireType(VariableElement field, TypeMirror type, String expected, String constraint) {
+        if (!isSubtype(type, expected)) {
+            throw new InvalidBeanException("unsupported type for @" + constraint.substring(constraint.lastIndexOf('.') + 1)
+                    + ": " + type, field);
+        }
+    }
+
+    /**
+     * @Valid 可以加在字段上，也可以加在容器的元素类型上（List<@Valid UserInfo>），元素类型必须也生成了校验器
+     */
+    private void cascade(VariableElement field, Property property) {
+        TypeMirror type = field.asType();
+        boolean valid = findAnnotation(field, VALID) != null;
+
+        if (isSubtype(type, "java.lang.Iterable") || isSubtype(type, "java.util.Map")) {
+            boolean map = isSubtype(type, "java.util.Map");
+            List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+
+            if (arguments.size() != (map ? 2 : 1)) {
+                if (valid) {
+                    throw new InvalidBeanException("raw containers can not be cascaded", field);
+                }
+
+                return;
+            }
+
+            if (map && hasAnnotation(arguments.get(0), VALID)) {
+                throw new InvalidBeanException("cascading map keys is not supported", field);
+            }
+
+            TypeMirror element = arguments.get(map ? 1 : 0);
+
+            if (valid || hasAnnotation(element, VALID)) {
+                property.cascade = map ? Cascade.MAP : isSubtype(type, "java.util.List") ? Cascade.LIST : Cascade.ITERABLE;
+                property.target = generatedValidator(field, element);
+            }
+        } else if (type.getKind() == TypeKind.ARRAY) {
+            if (valid) {
+                throw new InvalidBeanException("cascading arrays is not supported", field);
+            }
+        } else if (valid) {
+            property.cascade = Cascade.BEAN;
+            property.target = generatedValidator(field, type);
+        }
+    }
+
+    private String generatedValidator(VariableElement field, TypeMirror type) {
+        Element element = processingEnv.getTypeUtils().asElement(type);
+
+        if (!(element instanceof TypeElement) || findAnnotation(element, GENERATE_VALIDATOR) == null) {
+            throw new InvalidBeanException("cascaded type " + type + " must be annotated with @GenerateValidator", field);
+        }
+
+        return ((TypeElement) element).getQualifiedName() + GeneratedValidators.SUFFIX;
+    }
+
+    private List<AnnotationMirror> constraintsOf(Element element) {
+        List<AnnotationMirror> constraints = new ArrayList<>();
+
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            Element annotationType = mirror.getAnnotationType().asElement();
+
+            if (findAnnotation(annotationType, CONSTRAINT) != null) {
+                constraints.add(mirror);
+            } else if (annotationType.getEnclosingElement() != null
+                    && findAnnotation(annotationType.getEnclosingElement(), CONSTRAINT) != null) {
+                // @Size.List 这样的容器注解
+                throw new InvalidBeanException("repeated constraints are not supported", element);
+            }
+        }
+
+        return constraints;
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String type) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(type)) {
+                return mirror;
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean hasAnnotation(TypeMirror type, String annotation) {
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private Map<String, AnnotationValue> values(AnnotationMirror mirror) {
+        Map<String, AnnotationValue> values = new LinkedHashMap<>();
+
+        processingEnv.getElementUtils().getElementValuesWithDefaults(mirror)
+                .forEach((method, value) -> values.put(method.getSimpleName().toString(), value));
+
+        return values;
+    }
+
+    private boolean isSubtype(TypeMirror type, String qualifiedName) {
+        TypeElement element = processingEnv.getElementUtils().getTypeElement(qualifiedName);
+
+        return element != null && type.getKind() == TypeKind.DECLARED && processingEnv.getTypeUtils()
+                .isAssignable(processingEnv.getTypeUtils().erasure(type), processingEnv.getTypeUtils().erasure(element.asType()));
+    }
+
+    enum Cascade {
+        NONE, BEAN, LIST, ITERABLE, MAP
+    }
+
+    static final class Property {
+        final String name;
+        // 生成代码中的局部变量名，避开生成方法自己用到的名字
+        final String variable;
+        // getter 调用或可以直接访问的字段
+        String accessor;
+        final List<Constraint> constraints = new ArrayList<>();
+        Cascade cascade = Cascade.NONE;
+        String target;
+
+        Property(String name, String variable) {
+            this.name = name;
+            this.variable = variable;
+        }
+    }
+
+    static final class Constraint {
+        final String annotationType;
+        final List<String> groups;
+        // 违规条件，%1$s 代表属性值；为 null 时表示永远满足（原始类型上的 @NotNull）
+        String condition;
+        // 委托给约束声明的 ConstraintValidator
+        boolean delegate;
+
+        Constraint(String annotationType, List<String> groups) {
+            this.annotationType = annotationType;
+            this.groups = groups;
+        }
+    }
+
+    static final class InvalidBeanException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final transient Element element;
+
+        InvalidBeanException(String message, Element element) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
@@ -1,7 +1,14 @@
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.EnumSet;
+import java.util.stream.Collectors;
 
 public class ReflectTest {
+    // 显示反射和隐藏帧，才能看到 Method.invoke 下面的 accessor（JDK 18 起是基于 MethodHandle 的 DirectMethodHandleAccessor）
+    private static final StackWalker WALKER = StackWalker.getInstance(
+            EnumSet.of(StackWalker.Option.SHOW_REFLECT_FRAMES, StackWalker.Option.SHOW_HIDDEN_FRAMES));
+    private static final int MAX_DEPTH = 8;
+
     public static void main(String[] args) throws ClassNotFoundException, NoSuchMethodException, InvocationTargetException, IllegalAccessException {
         Class<?> klass = Class.forName("ReflectTest");
         Method method = klass.getMethod("trace", int.class);
@@ -11,7 +18,16 @@ public class ReflectTest {
         }
     }
 
+    /**
+     * 只遍历调用方向上的前几帧，不像 new Exception 那样填充整个栈，拼成一个字符串后输出一次
+     * 热点路径上的调用点诊断用 java-learning 中带采样和异步输出的 com.pain.white.trace.StackTracer
+     */
     public static void trace(int i) {
-        new Exception("# " + i).printStackTrace();
+        String frames = WALKER.walk(stream -> stream
+                .skip(1)
+                .limit(MAX_DEPTH)
+                .map(frame -> "\tat " + frame)
+                .collect(Collectors.joining("\n")));
+        System.out.println("# " + i + "\n" + frames);
     }
 }
@@ -0,0 +1,35 @@
+package com.pain.white.lab;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.profile.LinuxPerfAsmProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 运行 lab 的全部基准测试，默认带 gc 分析，结果导出为 JSON 以便和历史结果比较
+ *
+ * java -cp target/benchmarks.jar com.pain.white.lab.LabBenchmarks [正则] [结果文件]
+ * 加上 -Dlab.perfasm=true 会再挂 perfasm，需要 Linux perf 和 hsdis
+ */
+public class LabBenchmarks {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : LabBenchmarks.class.getPackage().getName() + ".*Benchmark";
+        String result = args.length > 1 ? args[1] : "target/jmh-result.json";
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result);
+
+        if (Boolean.getBoolean("lab.perfasm")) {
+            options.addProfiler(LinuxPerfAsmProfiler.class);
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,9 @@
+package com.pain.white.lab.dispatch;
+
+public class AmericanPassenger extends Passenger {
+
+    @Override
+    public int passThroughImmigration() {
+        return 3;
+    }
+}
@@ -0,0 +1,84 @@
+package com.pain.white.lab.dispatch;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同一个调用点分别见到 1 种、2 种、4 种接收者类型
+ *
+ * 单态和双态时 C2 按类型内联，megamorphic 时只能走虚表分派，也就无法内联
+ * 每个方法在独立 fork 中运行，调用点的类型 profile 互不影响
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CallSiteBenchmark {
+    private static final int SIZE = 1024;
+
+    private Passenger[] monomorphic;
+    private Passenger[] bimorphic;
+    private Passenger[] megamorphic;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Passenger[] types = {
+                new ChinesePassenger(), new ForeignerPassenger(), new AmericanPassenger(), new JapanesePassenger()};
+
+        monomorphic = fill(types, 1);
+        bimorphic = fill(types, 2);
+        megamorphic = fill(types, 4);
+    }
+
+    private static Passenger[] fill(Passenger[] types, int kinds) {
+        Passenger[] passengers = new Passenger[SIZE];
+
+        for (int i = 0; i < SIZE; i++) {
+            passengers[i] = types[i % kinds];
+        }
+
+        return passengers;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int monomorphic() {
+        return passThrough(monomorphic);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int bimorphic() {
+        return passThrough(bimorphic);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int megamorphic() {
+        return passThrough(megamorphic);
+    }
+
+    private static int passThrough(Passenger[] passengers) {
+        int sum = 0;
+
+        for (Passenger passenger : passengers) {
+            sum += passenger.passThroughImmigration();
+        }
+
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CallSiteBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
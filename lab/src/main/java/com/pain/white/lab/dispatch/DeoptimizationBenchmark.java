@@ -0,0 +1,68 @@
+package com.pain.white.lab.dispatch;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应 InlineTest 中 (i < 1000000000) ? a : b 的切换
+ *
+ * 前 switchAt 轮只传入 ChinesePassenger，C2 按单态内联并埋下类型检查的 uncommon trap；
+ * 之后换成 ForeignerPassenger，trap 触发去优化，解释执行一段时间后重新编译为双态内联
+ * 看每一轮的分数变化，配合 -prof comp 或 -jvmArgsAppend -XX:+PrintCompilation 可以看到 made not entrant
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeoptimizationBenchmark {
+    private static final int CALLS = 1024;
+
+    // 包括预热轮次在内，第几轮之后切换接收者
+    @Param({"8"})
+    public int switchAt;
+
+    private Passenger a;
+    private Passenger b;
+    private Passenger current;
+    private int iteration;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        a = new ChinesePassenger();
+        // 提前加载另一个子类，避免 CHA 把调用直接去虚化，这样测到的是基于类型 profile 的内联
+        b = new ForeignerPassenger();
+        iteration = 0;
+    }
+
+    @Setup(Level.Iteration)
+    public void switchReceiver() {
+        current = ++iteration <= switchAt ? a : b;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public int passThrough() {
+        Passenger passenger = current;
+        int sum = 0;
+
+        for (int i = 0; i < CALLS; i++) {
+            sum += passenger.passThroughImmigration();
+        }
+
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DeoptimizationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,65 @@
+package com.pain.white.lab.dispatch;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 一组同类型元素的循环，由 TypePartitionedExecutor 内部使用
+ *
+ * 每种具体类型都由 GroupLoops 用单独的类加载器重新定义一份 Body，字节码相同，但各自有独立的类型 profile，
+ * 循环里的调用点只会看到这一组的操作；TYPE 在每份拷贝里是常量，比较 getClass() 之后 C2 知道元素的确切类型，
+ * 操作内联进来以后，里面的虚方法调用也能直接绑定到这个类型的实现
+ * 接口和 Body 必须是 public 的，拷贝在另一个类加载器里，不属于同一个运行时包
+ */
+public interface GroupLoop {
+
+    void forEach(Object[] items, int from, int to, Consumer<Object> operation);
+
+    long sum(Object[] items, int from, int to, ToLongFunction<Object> operation);
+
+    final class Body implements GroupLoop {
+        private static final Class<?> TYPE = loadedType();
+
+        @SuppressWarnings("unchecked")
+        private static Class<?> loadedType() {
+            ClassLoader loader = Body.class.getClassLoader();
+
+            if (!(loader instanceof Supplier)) {
+                throw new IllegalStateException("GroupLoop.Body must be loaded through GroupLoops");
+            }
+
+            return ((Supplier<Class<?>>) loader).get();
+        }
+
+        @Override
+        public void forEach(Object[] items, int from, int to, Consumer<Object> operation) {
+            for (int i = from; i < to; i++) {
+                Object item = items[i];
+
+                if (item.getClass() != TYPE) {
+                    throw new IllegalStateException(item.getClass().getName() + " in the group of " + TYPE.getName());
+                }
+
+                operation.accept(item);
+            }
+        }
+
+        @Override
+        public long sum(Object[] items, int from, int to, ToLongFunction<Object> operation) {
+            long sum = 0;
+
+            for (int i = from; i < to; i++) {
+                Object item = items[i];
+
+                if (item.getClass() != TYPE) {
+                    throw new IllegalStateException(item.getClass().getName() + " in the group of " + TYPE.getName());
+                }
+
+                sum += operation.applyAsLong(item);
+            }
+
+            return sum;
+        }
+    }
+}
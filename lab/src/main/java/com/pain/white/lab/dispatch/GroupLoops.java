@@ -0,0 +1,94 @@
+package com.pain.white.lab.dispatch;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Supplier;
+
+/**
+ * 每种具体类型一份 GroupLoop.Body 的拷贝，第一次遇到这个类型时定义，之后一直复用
+ * 同一类型在不同的执行器、不同的操作之间共用一份拷贝，操作的种类多了，拷贝里的调用点同样会变成多态的
+ */
+final class GroupLoops {
+    private static final String BODY = GroupLoop.Body.class.getName();
+    private static final byte[] BODY_BYTES = readBody();
+
+    private static final ClassValue<GroupLoop> LOOPS = new ClassValue<GroupLoop>() {
+        @Override
+        protected GroupLoop computeValue(Class<?> type) {
+            try {
+                Class<?> body = new CloningLoader(type).loadClass(BODY);
+                return body.asSubclass(GroupLoop.class).getConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("can not define the group loop for " + type.getName(), e);
+            }
+        }
+    };
+
+    private GroupLoops() {
+    }
+
+    static GroupLoop forType(Class<?> type) {
+        return LOOPS.get(type);
+    }
+
+    private static byte[] readBody() {
+        String resource = BODY.replace('.', '/') + ".class";
+
+        try (InputStream in = GroupLoop.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("class file not found: " + resource);
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int n;
+
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("can not read " + resource, e);
+        }
+    }
+
+    /**
+     * 只自己定义 Body，其余的类（包括 GroupLoop 接口）都交给父加载器；Body 的静态初始化通过 Supplier 取得元素类型
+     */
+    private static final class CloningLoader extends ClassLoader implements Supplier<Class<?>> {
+        private final Class<?> type;
+
+        CloningLoader(Class<?> type) {
+            super(GroupLoop.class.getClassLoader());
+            this.type = type;
+        }
+
+        @Override
+        public Class<?> get() {
+            return type;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!BODY.equals(name)) {
+                return super.loadClass(name, resolve);
+            }
+
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> body = findLoadedClass(name);
+
+                if (body == null) {
+                    body = defineClass(name, BODY_BYTES, 0, BODY_BYTES.length);
+                }
+
+                if (resolve) {
+                    resolveClass(body);
+                }
+
+                return body;
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.pain.white.lab.dispatch;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 4 种 Passenger 随机混合：直接遍历 vs 分组后执行
+ *
+ * partitionAndSum 包含每次分组的开销；partitionedSum 复用分组结果，两者都只传入同一个 Passenger::passThroughImmigration，
+ * 每组在自己的 GroupLoop 拷贝里执行，调用点是单态的
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PartitionedDispatchBenchmark {
+
+    @Param({"1024", "1048576"})
+    public int size;
+
+    private List<Passenger> passengers;
+    private TypePartitionedExecutor<Passenger> partitioned;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Passenger[] types = {
+                new ChinesePassenger(), new ForeignerPassenger(), new AmericanPassenger(), new JapanesePassenger()};
+        Random random = new Random(42);
+        passengers = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            passengers.add(types[i % types.length]);
+        }
+
+        Collections.shuffle(passengers, random);
+        partitioned = TypePartitionedExecutor.of(passengers);
+    }
+
+    @Benchmark
+    public long mixedLoop() {
+        long sum = 0;
+
+        for (Passenger passenger : passengers) {
+            sum += passenger.passThroughImmigration();
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public long partitionAndSum() {
+        return TypePartitionedExecutor.<Passenger>of(passengers).sum(Passenger::passThroughImmigration);
+    }
+
+    @Benchmark
+    public long partitionedSum() {
+        return partitioned.sum(Passenger::passThroughImmigration);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PartitionedDispatchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
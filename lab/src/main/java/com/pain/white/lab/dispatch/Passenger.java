@@ -0,0 +1,10 @@
+package com.pain.white.lab.dispatch;
+
+/**
+ * 来自 lab/InlineTest：不同国籍的旅客过海关，用来观察虚方法调用点的内联和去优化
+ * 返回值交给 Blackhole 或累加后返回，防止空方法被当作死代码消除
+ */
+public abstract class Passenger {
+
+    public abstract int passThroughImmigration();
+}
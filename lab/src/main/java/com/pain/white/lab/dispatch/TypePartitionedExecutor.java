@@ -0,0 +1,156 @@
+package com.pain.white.lab.dispatch;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * 按具体类型分组后再执行的批处理器
+ *
+ * 混合类型的列表逐个调用虚方法时，调用点是 megamorphic 的，不能内联，而且间接跳转的目标每次都在变，分支预测频繁失败
+ * 先用计数排序把同一类型的元素排到一起（同类型内保持原有顺序），每组交给这个类型自己的 GroupLoop 执行
+ *
+ * HotSpot 的类型 profile 是按字节码调用点记录的，所有组共用一个循环时，operation 内部的调用点仍然会看到所有类型；
+ * 每种类型一份循环的拷贝，各有各的调用点，拷贝里元素的确切类型是常量，operation 内联之后里面的虚调用也是单态的
+ */
+public class TypePartitionedExecutor<P> {
+    private final Class<?>[] types;
+    // 第 i 组的元素在 items[offsets[i], offsets[i + 1]) 中
+    private final int[] offsets;
+    private final Object[] items;
+    // forEachGroup 交出去的只读视图，内部数组不会被调用方改动
+    private final List<?>[] groups;
+    // 第 i 组的循环，按类型缓存，同一类型的组总是用同一份
+    private final GroupLoop[] loops;
+
+    private TypePartitionedExecutor(Class<?>[] types, int[] offsets, Object[] items) {
+        this.types = types;
+        this.offsets = offsets;
+        this.items = items;
+        this.groups = new List<?>[types.length];
+        this.loops = new GroupLoop[types.length];
+
+        List<Object> all = Arrays.asList(items);
+
+        for (int t = 0; t < types.length; t++) {
+            groups[t] = Collections.unmodifiableList(all.subList(offsets[t], offsets[t + 1]));
+            loops[t] = GroupLoops.forType(types[t]);
+        }
+    }
+
+    /**
+     * 分组结果可以复用，同一批数据执行多个操作时只需分组一次
+     */
+    public static <P> TypePartitionedExecutor<P> of(List<? extends P> elements) {
+        int size = elements.size();
+        Class<?>[] types = new Class<?>[4];
+        int typeCount = 0;
+        int[] typeIndexes = new int[size];
+        int[] counts = new int[types.length];
+
+        // 第一遍：记录每个元素的类型下标并计数；子类型通常只有几个，线性查找比哈希更快
+        int last = -1;
+
+        for (int i = 0; i < size; i++) {
+            Class<?> type = elements.get(i).getClass();
+
+            if (last < 0 || types[last] != type) {
+                last = indexOf(types, typeCount, type);
+
+                if (last < 0) {
+                    if (typeCount == types.length) {
+                        types = Arrays.copyOf(types, typeCount * 2);
+                        counts = Arrays.copyOf(counts, typeCount * 2);
+                    }
+
+                    types[typeCount] = type;
+                    last = typeCount++;
+                }
+            }
+
+            typeIndexes[i] = last;
+            counts[last]++;
+        }
+
+        int[] offsets = new int[typeCount + 1];
+
+        for (int t = 0; t < typeCount; t++) {
+            offsets[t + 1] = offsets[t] + counts[t];
+        }
+
+        // 第二遍：按类型放到各自的区间
+        int[] cursors = Arrays.copyOf(offsets, typeCount);
+        Object[] items = new Object[size];
+
+        for (int i = 0; i < size; i++) {
+            items[cursors[typeIndexes[i]]++] = elements.get(i);
+        }
+
+        return new TypePartitionedExecutor<>(Arrays.copyOf(types, typeCount), offsets, items);
+    }
+
+    /**
+     * 分组后执行，等价于 of(elements).forEach(operation)
+     */
+    public static <P> void execute(List<? extends P> elements, Consumer<? super P> operation) {
+        TypePartitionedExecutor.<P>of(elements).forEach(operation);
+    }
+
+    private static int indexOf(Class<?>[] types, int typeCount, Class<?> type) {
+        for (int t = 0; t < typeCount; t++) {
+            if (types[t] == type) {
+                return t;
+            }
+        }
+
+        return -1;
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    public int typeCount() {
+        return types.length;
+    }
+
+    /**
+     * 按组执行，组的顺序是类型第一次出现的顺序
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super P> operation) {
+        for (int t = 0; t < types.length; t++) {
+            loops[t].forEach(items, offsets[t], offsets[t + 1], (Consumer<Object>) operation);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public long sum(ToLongFunction<? super P> operation) {
+        long sum = 0;
+
+        for (int t = 0; t < types.length; t++) {
+            sum += loops[t].sum(items, offsets[t], offsets[t + 1], (ToLongFunction<Object>) operation);
+        }
+
+        return sum;
+    }
+
+    /**
+     * 每组回调一次，consumer 可以按 type 选择专门为该类型编写的循环
+     */
+    public void forEachGroup(GroupConsumer consumer) {
+        for (int t = 0; t < types.length; t++) {
+            consumer.accept(types[t], groups[t]);
+        }
+    }
+
+    /**
+     * group 中的元素的具体类型都是 type，group 是只读的，支持随机访问
+     */
+    @FunctionalInterface
+    public interface GroupConsumer {
+        void accept(Class<?> type, List<?> group);
+    }
+}
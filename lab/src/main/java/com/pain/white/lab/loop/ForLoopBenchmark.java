@@ -0,0 +1,88 @@
+package com.pain.white.lab.loop;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 来自 lab/ForLoopTest：遍历 int[] 的几种写法
+ * 下标循环和增强 for 编译后的字节码几乎一样，C2 都会做范围检查消除和循环展开；Stream 多了装配流水线的开销
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ForLoopBenchmark {
+
+    // 3 对应 ForLoopTest 中的 {1, 6, 8}
+    @Param({"3", "1000", "1000000"})
+    public int size;
+
+    private int[] numbers;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        numbers = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            numbers[i] = random.nextInt(100);
+        }
+    }
+
+    @Benchmark
+    public long indexed() {
+        long sum = 0;
+
+        for (int i = 0; i < numbers.length; i++) {
+            sum += numbers[i];
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public long enhanced() {
+        long sum = 0;
+
+        for (int number : numbers) {
+            sum += number;
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public long stream() {
+        return Arrays.stream(numbers).asLongStream().sum();
+    }
+
+    /**
+     * 与 ForLoopTest 相同：逐个 submit 再求平均，MovingAverage 经逃逸分析后可以标量替换，不在堆上分配
+     */
+    @Benchmark
+    public double movingAverage() {
+        MovingAverage ma = new MovingAverage();
+
+        for (int number : numbers) {
+            ma.submit(number);
+        }
+
+        return ma.getAvg();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ForLoopBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,22 @@
+package com.pain.white.lab.loop;
+
+/**
+ * 来自 lab/MovingAverage，count 改为 long 避免溢出
+ */
+public class MovingAverage {
+    private long count = 0;
+    private double sum = 0.0D;
+
+    public void submit(double value) {
+        this.count++;
+        this.sum += value;
+    }
+
+    public double getAvg() {
+        if (0 == this.count) {
+            return sum;
+        }
+
+        return this.sum / this.count;
+    }
+}
@@ -0,0 +1,79 @@
+package com.pain.white.lab.pricing;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * 批量定价：价格和客户等级都放在原始类型数组里，整批只有两种折扣系数
+ *
+ * 客户等级在 vipFlags 中只算一次，之后每次重新定价都不再调用 isVIP 和 actionPrice
+ * 每个结果都是 price * rate，与逐个调用 actionPrice 的结果逐位相同
+ * 这要求 actionPrice 没有被改写：覆盖了 actionPrice 的 Merchant 子类在构造时就被拒绝，定价规则只能通过 rate 扩展
+ */
+public final class BatchPricer {
+    private final double regularRate;
+    private final double vipRate;
+    // 下标 0 为普通客户，1 为 VIP
+    private final double[] rates;
+
+    public BatchPricer(Merchant<?> merchant) {
+        Class<?> declaring = actionPrice(merchant.getClass()).getDeclaringClass();
+
+        if (declaring != Merchant.class && declaring != VIPOnlyMerchant.class) {
+            throw new IllegalArgumentException(declaring.getName() + " overrides actionPrice, batch pricing only reads rate");
+        }
+
+        this.regularRate = merchant.rate(false);
+        this.vipRate = merchant.rate(true);
+        this.rates = new double[]{regularRate, vipRate};
+    }
+
+    /**
+     * 按擦除后的签名查找，子类用具体客户类型覆盖时找到的是编译器生成的桥接方法，声明它的仍是该子类
+     */
+    private static Method actionPrice(Class<?> type) {
+        try {
+            return type.getMethod("actionPrice", double.class, Customer.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public double getRegularRate() {
+        return regularRate;
+    }
+
+    public double getVipRate() {
+        return vipRate;
+    }
+
+    public static boolean[] vipFlags(List<? extends Customer> customers) {
+        boolean[] flags = new boolean[customers.size()];
+
+        for (int i = 0; i < flags.length; i++) {
+            flags[i] = customers.get(i).isVIP();
+        }
+
+        return flags;
+    }
+
+    /**
+     * 按标志查表取折扣系数，循环里没有分支：VIP 随机分布时，三元表达式写成的条件跳转会频繁预测失败
+     * C2 不会把查表向量化，真正的 SIMD 版本见 vector.VectorBatchPricer
+     *
+     * out 可以就是 prices，原地改价
+     */
+    public void price(double[] prices, boolean[] vipFlags, double[] out) {
+        int length = prices.length;
+
+        if (vipFlags.length != length || out.length != length) {
+            throw new IllegalArgumentException("prices, vipFlags and out must have the same length");
+        }
+
+        double[] rates = this.rates;
+
+        for (int i = 0; i < length; i++) {
+            out[i] = prices[i] * rates[vipFlags[i] ? 1 : 0];
+        }
+    }
+}
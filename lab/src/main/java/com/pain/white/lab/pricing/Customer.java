@@ -0,0 +1,10 @@
+package com.pain.white.lab.pricing;
+
+/**
+ * 来自 lab/GenericOverload：Merchant<T extends Customer> 的 actionPrice 被 VIPOnlyMerchant 按具体类型覆盖，编译器会生成桥接方法
+ * 原来的例子只看字节码，价格都返回 0；这里补上折扣，用来对比逐个定价和批量定价
+ */
+public interface Customer {
+
+    boolean isVIP();
+}
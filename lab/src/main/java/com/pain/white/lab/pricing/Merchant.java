@@ -0,0 +1,25 @@
+package com.pain.white.lab.pricing;
+
+/**
+ * VIP 按 vipRate 打折，其他客户原价
+ * 定价规则只能通过覆盖 rate 扩展：BatchPricer 只读 rate，不接受覆盖了 actionPrice 的子类，VIPOnlyMerchant 除外
+ */
+public class Merchant<T extends Customer> {
+    private final double vipRate;
+
+    public Merchant(double vipRate) {
+        this.vipRate = vipRate;
+    }
+
+    public double actionPrice(double price, T customer) {
+        return price * rate(customer.isVIP());
+    }
+
+    /**
+     * 某一等级客户的折扣系数，批量定价按等级取一次，不再逐个调用 actionPrice
+     * actionPrice 必须等于 price * rate(customer.isVIP())，否则批量定价与逐个定价的结果不一致
+     */
+    public double rate(boolean vip) {
+        return vip ? vipRate : 1.0;
+    }
+}
@@ -0,0 +1,100 @@
+package com.pain.white.lab.pricing;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VIP 和普通客户随机混合：逐个调用 actionPrice 与 BatchPricer 对比
+ * perItem 经过泛型擦除后的 actionPrice(double, Customer)，每次还要虚调用 isVIP；vipOnlyPerItem 多一层桥接方法
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PricingBenchmark {
+
+    @Param({"1024", "1048576"})
+    public int size;
+
+    private Merchant<Customer> merchant;
+    private Merchant<VIP> vipOnlyMerchant;
+    private List<Customer> customers;
+    private List<VIP> vips;
+    private double[] prices;
+    private boolean[] vipFlags;
+    private BatchPricer pricer;
+    private double[] out;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        merchant = new Merchant<>(0.8);
+        vipOnlyMerchant = new VIPOnlyMerchant(0.7);
+        customers = new ArrayList<>(size);
+        vips = new ArrayList<>(size);
+        prices = new double[size];
+
+        Customer vip = new VIP();
+        Customer regular = new Regular();
+
+        for (int i = 0; i < size; i++) {
+            customers.add(random.nextInt(4) == 0 ? vip : regular);
+            vips.add(new VIP());
+            prices[i] = 1 + random.nextInt(100000) / 100.0;
+        }
+
+        vipFlags = BatchPricer.vipFlags(customers);
+        pricer = new BatchPricer(merchant);
+        out = new double[size];
+    }
+
+    @Benchmark
+    public double[] perItem() {
+        for (int i = 0; i < size; i++) {
+            out[i] = merchant.actionPrice(prices[i], customers.get(i));
+        }
+
+        return out;
+    }
+
+    @Benchmark
+    public double[] vipOnlyPerItem() {
+        for (int i = 0; i < size; i++) {
+            out[i] = vipOnlyMerchant.actionPrice(prices[i], vips.get(i));
+        }
+
+        return out;
+    }
+
+    @Benchmark
+    public double[] batch() {
+        pricer.price(prices, vipFlags, out);
+        return out;
+    }
+
+    /**
+     * 包含从客户列表推导等级标志的开销，客户每次都变时的代价
+     */
+    @Benchmark
+    public double[] batchWithFlags() {
+        pricer.price(prices, BatchPricer.vipFlags(customers), out);
+        return out;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PricingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
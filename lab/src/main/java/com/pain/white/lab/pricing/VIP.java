@@ -0,0 +1,9 @@
+package com.pain.white.lab.pricing;
+
+public class VIP implements Customer {
+
+    @Override
+    public boolean isVIP() {
+        return true;
+    }
+}
@@ -0,0 +1,18 @@
+package com.pain.white.lab.pricing;
+
+/**
+ * 只接待 VIP，参数类型已经保证了客户是 VIP，不再调用 isVIP
+ * 通过 Merchant<VIP> 的引用调用时要先经过桥接方法 actionPrice(double, Customer) 做类型转换
+ * 结果仍是 price * rate(true)，方法声明为 final，子类不能再改掉与 rate 的这层关系
+ */
+public class VIPOnlyMerchant extends Merchant<VIP> {
+
+    public VIPOnlyMerchant(double vipRate) {
+        super(vipRate);
+    }
+
+    @Override
+    public final double actionPrice(double price, VIP customer) {
+        return price * rate(true);
+    }
+}
@@ -0,0 +1,46 @@
+package com.pain.white.lab.pricing.vector;
+
+import com.pain.white.lab.pricing.BatchPricer;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * 用 jdk.incubator.vector 显式向量化的批量定价，只在 -P vector 时编译，运行时需要 --add-modules jdk.incubator.vector
+ * 每个 lane 按 VIP 标志在两个折扣系数之间 blend 后再乘价格，结果与 BatchPricer 逐位相同
+ */
+public final class VectorBatchPricer {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private final double regularRate;
+    private final double vipRate;
+
+    public VectorBatchPricer(BatchPricer pricer) {
+        this.regularRate = pricer.getRegularRate();
+        this.vipRate = pricer.getVipRate();
+    }
+
+    public void price(double[] prices, boolean[] vipFlags, double[] out) {
+        int length = prices.length;
+
+        if (vipFlags.length != length || out.length != length) {
+            throw new IllegalArgumentException("prices, vipFlags and out must have the same length");
+        }
+
+        DoubleVector regular = DoubleVector.broadcast(SPECIES, regularRate);
+        DoubleVector vip = DoubleVector.broadcast(SPECIES, vipRate);
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+
+        for (; i < upper; i += SPECIES.length()) {
+            VectorMask<Double> mask = VectorMask.fromArray(SPECIES, vipFlags, i);
+            DoubleVector.fromArray(SPECIES, prices, i)
+                    .mul(regular.blend(vip, mask))
+                    .intoArray(out, i);
+        }
+
+        for (; i < length; i++) {
+            out[i] = prices[i] * (vipFlags[i] ? vipRate : regularRate);
+        }
+    }
+}
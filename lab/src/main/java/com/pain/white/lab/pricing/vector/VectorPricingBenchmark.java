@@ -0,0 +1,68 @@
+package com.pain.white.lab.pricing.vector;
+
+import com.pain.white.lab.pricing.BatchPricer;
+import com.pain.white.lab.pricing.Merchant;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 查表的 BatchPricer 与 Vector API 对比，数据与 PricingBenchmark 相同
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class VectorPricingBenchmark {
+
+    @Param({"1024", "1048576"})
+    public int size;
+
+    private double[] prices;
+    private boolean[] vipFlags;
+    private BatchPricer pricer;
+    private VectorBatchPricer vectorPricer;
+    private double[] out;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        prices = new double[size];
+        vipFlags = new boolean[size];
+
+        for (int i = 0; i < size; i++) {
+            vipFlags[i] = random.nextInt(4) == 0;
+            prices[i] = 1 + random.nextInt(100000) / 100.0;
+        }
+
+        pricer = new BatchPricer(new Merchant<>(0.8));
+        vectorPricer = new VectorBatchPricer(pricer);
+        out = new double[size];
+    }
+
+    @Benchmark
+    public double[] scalar() {
+        pricer.price(prices, vipFlags, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] vectorApi() {
+        vectorPricer.price(prices, vipFlags, out);
+        return out;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(VectorPricingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,27 @@
+package com.pain.white.lab.singleton;
+
+/**
+ * 双重检查锁，instance 必须是 volatile，否则其他线程可能看到未构造完成的对象
+ * 初始化之后每次读取仍然是一次 volatile 读
+ */
+public class DoubleCheckedSingleton {
+    private static volatile DoubleCheckedSingleton instance;
+
+    private DoubleCheckedSingleton() {}
+
+    public static DoubleCheckedSingleton getInstance() {
+        DoubleCheckedSingleton result = instance;
+
+        if (result == null) {
+            synchronized (DoubleCheckedSingleton.class) {
+                result = instance;
+
+                if (result == null) {
+                    instance = result = new DoubleCheckedSingleton();
+                }
+            }
+        }
+
+        return result;
+    }
+}
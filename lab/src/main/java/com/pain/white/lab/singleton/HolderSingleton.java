@@ -0,0 +1,18 @@
+package com.pain.white.lab.singleton;
+
+/**
+ * 来自 lab/Singleton：按需初始化的持有者类，LazyHolder 在第一次访问 INSTANCE 时才执行 <clinit>
+ * 类初始化由 JVM 保证线程安全，初始化完成后的读取不需要任何同步
+ */
+public class HolderSingleton {
+
+    private HolderSingleton() {}
+
+    private static class LazyHolder {
+        static final HolderSingleton INSTANCE = new HolderSingleton();
+    }
+
+    public static HolderSingleton getInstance() {
+        return LazyHolder.INSTANCE;
+    }
+}
@@ -0,0 +1,44 @@
+package com.pain.white.lab.singleton;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 初始化完成之后获取单例的开销：持有者类、双重检查锁、synchronized
+ * 多线程下 synchronized 的锁竞争更明显，可以用 -t 4 运行
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class SingletonBenchmark {
+
+    @Benchmark
+    public Object holder() {
+        return HolderSingleton.getInstance();
+    }
+
+    @Benchmark
+    public Object doubleChecked() {
+        return DoubleCheckedSingleton.getInstance();
+    }
+
+    @Benchmark
+    public Object synchronizedMethod() {
+        return SynchronizedSingleton.getInstance();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SingletonBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
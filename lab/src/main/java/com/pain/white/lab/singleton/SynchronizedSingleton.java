@@ -0,0 +1,18 @@
+package com.pain.white.lab.singleton;
+
+/**
+ * 对照组：每次调用都加锁
+ */
+public class SynchronizedSingleton {
+    private static SynchronizedSingleton instance;
+
+    private SynchronizedSingleton() {}
+
+    public static synchronized SynchronizedSingleton getInstance() {
+        if (instance == null) {
+            instance = new SynchronizedSingleton();
+        }
+
+        return instance;
+    }
+}